@@ -0,0 +1,77 @@
+package org.gitstats.backend.service;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.gitstats.backend.dto.ContributionStatsDTO;
+import org.gitstats.backend.dto.ContributionsCollectionDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Contribution calendar processing: folding the GraphQL week/day structure
+ * into {@link ContributionAnalytics} (cold, unchanged and a new "today"), and
+ * producing stats from calendars of one to fifteen years.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContributionCalendarBenchmark {
+
+    @Param({"1", "5", "15"})
+    public int years;
+
+    private ContributionsCollectionDTO collection;
+    private ContributionAnalytics warm;
+    private ContributionAnalytics history;
+    private int lastEpochDay;
+    private int today;
+
+    @Setup
+    public void setUp() throws IOException {
+        collection = Fixtures.objectMapper()
+                .readValue(Fixtures.bytes(Fixtures.CONTRIBUTIONS), ContributionsCollectionDTO.class);
+        warm = new ContributionAnalytics();
+        ContributionAnalyticsService.merge(warm, collection);
+        lastEpochDay = warm.getStartEpochDay() + warm.getLength() - 1;
+
+        Random random = new Random(7);
+        int[] counts = new int[years * 365];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = random.nextInt(3) == 0 ? 0 : random.nextInt(12);
+        }
+        history = new ContributionAnalytics();
+        history.merge(lastEpochDay - counts.length + 1, counts);
+    }
+
+    @Benchmark
+    public ContributionAnalytics mergeCold() {
+        ContributionAnalytics analytics = new ContributionAnalytics();
+        ContributionAnalyticsService.merge(analytics, collection);
+        return analytics;
+    }
+
+    @Benchmark
+    public int mergeUnchanged() {
+        return ContributionAnalyticsService.merge(warm, collection);
+    }
+
+    // Only the last day changes, as on a typical refresh
+    @Benchmark
+    public int mergeToday() {
+        today = (today + 1) % 20;
+        return history.merge(lastEpochDay, new int[] {today});
+    }
+
+    @Benchmark
+    public ContributionStatsDTO stats() {
+        return history.snapshot("octo-dev");
+    }
+}
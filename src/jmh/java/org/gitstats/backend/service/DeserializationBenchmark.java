@@ -0,0 +1,86 @@
+package org.gitstats.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.gitstats.backend.dto.GitHubEventDTO;
+import org.gitstats.backend.dto.GitHubRepoDTO;
+import org.gitstats.backend.dto.GitHubUserDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ParameterizedTypeReference;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * One full page (100 items) of /users/{user}/repos and /events, and one
+ * /users/{user}: Jackson data binding (what RestClient did before) against
+ * the streaming {@link GitHubJsonDecoder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DeserializationBenchmark {
+
+    private static final Type REPO_LIST = new ParameterizedTypeReference<List<GitHubRepoDTO>>() {}.getType();
+    private static final Type EVENT_LIST = new ParameterizedTypeReference<List<GitHubEventDTO>>() {}.getType();
+
+    private ObjectMapper objectMapper;
+    private GitHubJsonDecoder decoder;
+    private JavaType repoListType;
+    private JavaType eventListType;
+
+    private byte[] reposPage;
+    private byte[] eventsPage;
+    private byte[] user;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Fixtures.objectMapper();
+        decoder = new GitHubJsonDecoder();
+        repoListType = objectMapper.constructType(REPO_LIST);
+        eventListType = objectMapper.constructType(EVENT_LIST);
+        reposPage = Fixtures.bytes(Fixtures.REPOS_PAGE);
+        eventsPage = Fixtures.bytes(Fixtures.EVENTS_PAGE);
+        user = Fixtures.bytes(Fixtures.USER);
+    }
+
+    @Benchmark
+    public List<GitHubRepoDTO> reposDataBinding() throws IOException {
+        return objectMapper.readValue(reposPage, repoListType);
+    }
+
+    @Benchmark
+    public Object reposStreaming() throws IOException {
+        return decoder.read(REPO_LIST, new ByteArrayInputStream(reposPage));
+    }
+
+    @Benchmark
+    public List<GitHubEventDTO> eventsDataBinding() throws IOException {
+        return objectMapper.readValue(eventsPage, eventListType);
+    }
+
+    @Benchmark
+    public Object eventsStreaming() throws IOException {
+        return decoder.read(EVENT_LIST, new ByteArrayInputStream(eventsPage));
+    }
+
+    @Benchmark
+    public GitHubUserDTO userDataBinding() throws IOException {
+        return objectMapper.readValue(user, GitHubUserDTO.class);
+    }
+
+    @Benchmark
+    public GitHubUserDTO userStreaming() throws IOException {
+        return decoder.readUser(new ByteArrayInputStream(user));
+    }
+}
@@ -0,0 +1,39 @@
+package org.gitstats.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Recorded-shape GitHub payloads from src/jmh/resources/fixtures, plus an
+ * ObjectMapper configured the way RestClient's default JSON converter is.
+ */
+final class Fixtures {
+
+    static final String REPOS_PAGE = "repos-page.json";
+    static final String EVENTS_PAGE = "events-page.json";
+    static final String USER = "user.json";
+    static final String CONTRIBUTIONS = "contributions.json";
+
+    private Fixtures() {
+    }
+
+    static byte[] bytes(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+}
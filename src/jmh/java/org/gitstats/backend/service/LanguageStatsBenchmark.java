@@ -0,0 +1,66 @@
+package org.gitstats.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.gitstats.backend.dto.GitHubRepoDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * calculateLanguageStats over repo lists from a casual account up to an
+ * organisation-sized one. Repos are copies of the fixture page with languages
+ * drawn from a skewed distribution (some repos have none).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LanguageStatsBenchmark {
+
+    private static final String[] LANGUAGES = {
+        "JavaScript", "Python", "Java", "TypeScript", "Go", "C++", "Rust", "Kotlin",
+        "Shell", "HTML", "CSS", "Ruby", "C", "Swift", "Dart", "Elixir", "Haskell", "Lua"
+    };
+
+    @Param({"10", "100", "1000", "10000"})
+    public int repoCount;
+
+    private List<GitHubRepoDTO> repos;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<GitHubRepoDTO> page = new ArrayList<>();
+        new GitHubJsonDecoder().readRepos(new ByteArrayInputStream(Fixtures.bytes(Fixtures.REPOS_PAGE)), page::add);
+
+        Random random = new Random(42);
+        List<GitHubRepoDTO> result = new ArrayList<>(repoCount);
+        for (int i = 0; i < repoCount; i++) {
+            GitHubRepoDTO template = page.get(i % page.size());
+            GitHubRepoDTO repo = new GitHubRepoDTO();
+            repo.setId(template.getId() + i);
+            repo.setName(template.getName());
+            repo.setCreatedAt(template.getCreatedAt());
+            // Squaring the uniform draw favours the first (most common) languages
+            double draw = random.nextDouble();
+            repo.setLanguage(draw < 0.1 ? null : LANGUAGES[(int) (draw * draw * LANGUAGES.length)]);
+            result.add(repo);
+        }
+        repos = List.copyOf(result);
+    }
+
+    @Benchmark
+    public Map<String, Long> calculateLanguageStats() {
+        return GitHubService.countLanguages(repos);
+    }
+}
@@ -0,0 +1,340 @@
+package org.gitstats.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Stand-in for api.github.com so the backend can be load-tested offline.
+ * Serves the REST endpoints GitStats calls and the contribution GraphQL
+ * queries from {@link SimulatedData}, with configurable latency, pagination,
+ * ETag / 304 handling, per-token rate limits and injected 502s.
+ *
+ * <pre>
+ * ./gradlew githubSimulator --args="--port=9090 --latency=80ms --error-rate=0.01"
+ * ./gradlew bootRun --args="--github.api.base-url=http://localhost:9090 --github.graphql.endpoint=http://localhost:9090/graphql --github.http.protocols=HTTP11"
+ * </pre>
+ *
+ * Logins starting with "ghost" do not exist (404). Tokens are accepted as-is;
+ * "sim-&lt;login&gt;" authenticates as that login, tokens starting with "bad" get 401.
+ */
+public final class GitHubSimulator {
+
+    private static final Pattern USER = Pattern.compile("/users/([^/]+)");
+    private static final Pattern USER_REPOS = Pattern.compile("/users/([^/]+)/repos");
+    private static final Pattern USER_EVENTS = Pattern.compile("/users/([^/]+)/events(?:/public)?");
+    private static final Pattern REPO_LANGUAGES = Pattern.compile("/repos/([^/]+)/([^/]+)/languages");
+    // Optional alias, then user(login: $var) { contributionsCollection(from: $var, to: $var)
+    private static final Pattern CONTRIBUTIONS_FIELD = Pattern.compile(
+            "(?:(\\w+)\\s*:\\s*)?user\\s*\\(\\s*login\\s*:\\s*\\$(\\w+)\\s*\\)\\s*\\{\\s*"
+                    + "contributionsCollection\\s*\\(\\s*from\\s*:\\s*\\$(\\w+)\\s*,\\s*to\\s*:\\s*\\$(\\w+)\\s*\\)");
+
+    private final SimulatorConfig config;
+    private final SimulatedData data;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final LongAdder served = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+
+    private GitHubSimulator(SimulatorConfig config) throws IOException {
+        this.config = config;
+        this.data = new SimulatedData(config);
+        this.server = HttpServer.create(new InetSocketAddress(config.port()), 1_024);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public static GitHubSimulator start(SimulatorConfig config) throws IOException {
+        // Without TCP_NODELAY the separate header and body writes add ~40 ms (Nagle + delayed ACK)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        GitHubSimulator simulator = new GitHubSimulator(config);
+        simulator.server.start();
+        return simulator;
+    }
+
+    public static void main(String[] args) throws IOException {
+        SimulatorConfig config = SimulatorConfig.from(new Args(args));
+        GitHubSimulator simulator = start(config);
+        System.out.println("GitHub simulator listening on http://localhost:" + simulator.port() + " with " + config);
+        Runtime.getRuntime().addShutdownHook(new Thread(simulator::stop));
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        System.out.printf("Simulator served %d responses (%d not modified, %d rate limited, %d injected errors)%n",
+                served.sum(), notModified.sum(), rateLimited.sum(), injectedErrors.sum());
+    }
+
+    private record Response(int status, Object body, Map<String, String> headers) {
+        static Response ok(Object body) {
+            return new Response(200, body, Map.of());
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, Map.of("message", message,
+                    "documentation_url", "https://docs.github.com/rest"), Map.of());
+        }
+    }
+
+    private static final class Budget {
+        long windowStartMillis;
+        int used;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            served.increment();
+            delay();
+            if (config.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < config.errorRate()) {
+                injectedErrors.increment();
+                send(exchange, Response.error(502, "Server Error"), null);
+                return;
+            }
+
+            String token = bearerToken(exchange);
+            String path = exchange.getRequestURI().getPath();
+            String resource = path.equals("/graphql") ? "graphql" : "core";
+            Budget budget = budgets.computeIfAbsent((token != null ? token : "anonymous") + ":" + resource, key -> new Budget());
+            Map<String, String> rateHeaders = new LinkedHashMap<>();
+            if (!tryAcquire(budget, resource, rateHeaders)) {
+                rateLimited.increment();
+                Response limited = Response.error(403, "API rate limit exceeded");
+                send(exchange, new Response(403, limited.body(), rateHeaders), null);
+                return;
+            }
+
+            Response response;
+            if (token != null && token.startsWith("bad")) {
+                response = Response.error(401, "Bad credentials");
+            } else {
+                response = route(exchange, path, token);
+            }
+            Map<String, String> headers = new LinkedHashMap<>(response.headers());
+            headers.putAll(rateHeaders);
+            send(exchange, new Response(response.status(), response.body(), headers), budget);
+        } catch (RuntimeException e) {
+            System.err.println("Simulator failed on " + exchange.getRequestURI() + ": " + e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Response route(HttpExchange exchange, String path, String token) throws IOException {
+        String method = exchange.getRequestMethod();
+        if (method.equals("POST") && path.equals("/graphql")) {
+            return token != null ? graphql(exchange.getRequestBody()) : Response.error(401, "This endpoint requires you to be authenticated.");
+        }
+        if (!method.equals("GET")) {
+            return Response.error(404, "Not Found");
+        }
+        Map<String, String> query = query(exchange.getRequestURI());
+        Matcher matcher;
+        if (path.equals("/user")) {
+            return token != null ? Response.ok(data.user(loginFor(token))) : Response.error(401, "Requires authentication");
+        }
+        if (path.equals("/user/repos")) {
+            return token != null ? page(exchange, data.repos(loginFor(token)), query) : Response.error(401, "Requires authentication");
+        }
+        if ((matcher = USER.matcher(path)).matches()) {
+            return exists(matcher.group(1)) ? Response.ok(data.user(matcher.group(1))) : Response.error(404, "Not Found");
+        }
+        if ((matcher = USER_REPOS.matcher(path)).matches()) {
+            return exists(matcher.group(1)) ? page(exchange, data.repos(matcher.group(1)), query) : Response.error(404, "Not Found");
+        }
+        if ((matcher = USER_EVENTS.matcher(path)).matches()) {
+            return exists(matcher.group(1)) ? page(exchange, data.events(matcher.group(1)), query) : Response.error(404, "Not Found");
+        }
+        if ((matcher = REPO_LANGUAGES.matcher(path)).matches()) {
+            return exists(matcher.group(1)) ? Response.ok(data.languages(matcher.group(1), matcher.group(2))) : Response.error(404, "Not Found");
+        }
+        return Response.error(404, "Not Found");
+    }
+
+    private static boolean exists(String login) {
+        return !login.startsWith("ghost");
+    }
+
+    private static String loginFor(String token) {
+        return token.startsWith("sim-") ? token.substring(4) : "sim-user-" + Math.floorMod(token.hashCode(), 1_000);
+    }
+
+    // GitHub-style page/per_page slicing with a Link header (per_page defaults to 30, max 100)
+    private Response page(HttpExchange exchange, List<?> items, Map<String, String> query) {
+        int perPage = Math.min(100, Math.max(1, Integer.parseInt(query.getOrDefault("per_page", "30"))));
+        int page = Math.max(1, Integer.parseInt(query.getOrDefault("page", "1")));
+        int lastPage = Math.max(1, (items.size() + perPage - 1) / perPage);
+        int from = Math.min(items.size(), (page - 1) * perPage);
+        List<?> slice = items.subList(from, Math.min(items.size(), from + perPage));
+        if (lastPage == 1) {
+            return Response.ok(slice);
+        }
+        String base = "http://" + exchange.getRequestHeaders().getFirst("Host") + exchange.getRequestURI().getPath()
+                + "?per_page=" + perPage + "&page=";
+        StringBuilder link = new StringBuilder();
+        if (page > 1) {
+            link.append('<').append(base).append(page - 1).append(">; rel=\"prev\", ");
+            link.append('<').append(base).append(1).append(">; rel=\"first\", ");
+        }
+        if (page < lastPage) {
+            link.append('<').append(base).append(page + 1).append(">; rel=\"next\", ");
+            link.append('<').append(base).append(lastPage).append(">; rel=\"last\", ");
+        }
+        String header = link.length() > 2 ? link.substring(0, link.length() - 2) : "";
+        return new Response(200, slice, header.isEmpty() ? Map.of() : Map.of("Link", header));
+    }
+
+    private Response graphql(InputStream body) throws IOException {
+        JsonNode request = objectMapper.readTree(body);
+        String document = request.path("query").asText();
+        JsonNode variables = request.path("variables");
+        Map<String, Object> result = new LinkedHashMap<>();
+        Matcher matcher = CONTRIBUTIONS_FIELD.matcher(document);
+        while (matcher.find()) {
+            String alias = matcher.group(1) != null ? matcher.group(1) : "user";
+            String login = variables.path(matcher.group(2)).asText();
+            if (!exists(login)) {
+                result.put(alias, null);
+                continue;
+            }
+            LocalDate from = OffsetDateTime.parse(variables.path(matcher.group(3)).asText()).toLocalDate();
+            LocalDate to = OffsetDateTime.parse(variables.path(matcher.group(4)).asText()).toLocalDate();
+            result.put(alias, Map.of("contributionsCollection", data.contributionsCollection(login, from, to)));
+        }
+        if (result.isEmpty()) {
+            return Response.ok(Map.of("errors", List.of(Map.of("message", "Simulator only supports contribution queries"))));
+        }
+        return Response.ok(Map.of("data", result));
+    }
+
+    private boolean tryAcquire(Budget budget, String resource, Map<String, String> headers) {
+        long now = System.currentTimeMillis();
+        long windowMillis = config.rateWindow().toMillis();
+        synchronized (budget) {
+            if (now - budget.windowStartMillis >= windowMillis) {
+                budget.windowStartMillis = now;
+                budget.used = 0;
+            }
+            boolean allowed = budget.used < config.rateLimit();
+            // Counted now, refunded in send() if the answer is a 304 (those are free on GitHub)
+            if (allowed) {
+                budget.used++;
+            }
+            headers.put("X-RateLimit-Limit", Integer.toString(config.rateLimit()));
+            headers.put("X-RateLimit-Remaining", Integer.toString(config.rateLimit() - budget.used));
+            headers.put("X-RateLimit-Used", Integer.toString(budget.used));
+            headers.put("X-RateLimit-Reset", Long.toString((budget.windowStartMillis + windowMillis) / 1_000));
+            headers.put("X-RateLimit-Resource", resource);
+            return allowed;
+        }
+    }
+
+    private void send(HttpExchange exchange, Response response, Budget budget) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(response.body());
+        response.headers().forEach((name, value) -> exchange.getResponseHeaders().set(name, value));
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+
+        if (config.etags() && response.status() == 200) {
+            String digest = etag(bytes);
+            exchange.getResponseHeaders().set("ETag", "W/\"" + digest + "\"");
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            if (ifNoneMatch != null && ifNoneMatch.contains(digest)) {
+                notModified.increment();
+                if (budget != null) {
+                    synchronized (budget) {
+                        budget.used = Math.max(0, budget.used - 1);
+                    }
+                }
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+        }
+        exchange.sendResponseHeaders(response.status(), bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void delay() {
+        long millis = config.latency().toMillis();
+        if (!config.jitter().isZero()) {
+            millis += ThreadLocalRandom.current().nextLong(config.jitter().toMillis() + 1);
+        }
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null) {
+            return null;
+        }
+        return authorization.startsWith("Bearer ") ? authorization.substring(7)
+                : authorization.startsWith("token ") ? authorization.substring(6) : null;
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> query = new LinkedHashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                query.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+}
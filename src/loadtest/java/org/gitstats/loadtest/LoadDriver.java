@@ -0,0 +1,203 @@
+package org.gitstats.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Closed-loop load against the GitStats API (normally backed by the
+ * {@link GitHubSimulator}). {@code --concurrency} virtual-thread clients each
+ * send one request after another for {@code --duration}; usernames are drawn
+ * from a Zipf distribution so caching behaves like real traffic, and requests
+ * during {@code --warmup} are not counted.
+ *
+ * <pre>
+ * ./gradlew loadTest --args="--target=http://localhost:8081 --concurrency=64 --duration=60s --out=build/load.json"
+ * </pre>
+ *
+ * {@code --mix} weights endpoints by name: user, repos, languages, events,
+ * insights, profile, and with simulator tokens also me and stats.
+ */
+public final class LoadDriver {
+
+    private static final Map<String, String> ENDPOINTS = Map.of(
+            "user", "/api/users/%s",
+            "repos", "/api/users/%s/repos",
+            "languages", "/api/users/%s/languages",
+            "events", "/api/users/%s/events",
+            "insights", "/api/users/%s/events/insights",
+            "profile", "/api/users/%s/profile",
+            "me", "/api/user/me",
+            "stats", "/api/user/contributions/stats");
+    private static final List<String> AUTHENTICATED = List.of("me", "stats");
+
+    private record Sample(int endpoint, long nanos, int status) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Args options = new Args(args);
+        String target = options.string("target", "http://localhost:8081");
+        int users = options.integer("users", 500);
+        int concurrency = options.integer("concurrency", 32);
+        Duration warmup = options.duration("warmup", Duration.ofSeconds(10));
+        Duration duration = options.duration("duration", Duration.ofSeconds(60));
+        double skew = options.decimal("skew", 1.0);
+        String mix = options.string("mix", "user=30,repos=15,languages=20,events=10,insights=10,profile=15");
+        String out = options.string("out", null);
+
+        List<String> names = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.split("=");
+            if (!ENDPOINTS.containsKey(pair[0])) {
+                throw new IllegalArgumentException("Unknown endpoint " + pair[0] + ", expected one of " + ENDPOINTS.keySet());
+            }
+            names.add(pair[0]);
+            weights.add(Integer.parseInt(pair[1]));
+        }
+        int[] endpointCdf = cumulative(weights.stream().mapToDouble(Integer::doubleValue).toArray());
+        double[] zipf = new double[users];
+        for (int rank = 0; rank < users; rank++) {
+            zipf[rank] = 1.0 / Math.pow(rank + 1, skew);
+        }
+        int[] userCdf = cumulative(zipf);
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        System.out.printf("Driving %s with %d clients for %s (+%s warmup), %d users, mix %s%n",
+                target, concurrency, duration, warmup, users, mix);
+        List<Future<List<Sample>>> workers = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> {
+                    List<Sample> samples = new ArrayList<>();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        int endpoint = pick(endpointCdf, random);
+                        String login = "load-user-" + pick(userCdf, random);
+                        String name = names.get(endpoint);
+                        HttpRequest.Builder request = HttpRequest.newBuilder(
+                                        URI.create(target + ENDPOINTS.get(name).formatted(login)))
+                                .timeout(Duration.ofSeconds(30));
+                        if (AUTHENTICATED.contains(name)) {
+                            request.header("Authorization", "Bearer sim-" + login);
+                        }
+                        int status;
+                        try {
+                            status = client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (IOException e) {
+                            status = -1;
+                        }
+                        long elapsed = System.nanoTime() - now;
+                        if (now >= measureFrom) {
+                            samples.add(new Sample(endpoint, elapsed, status));
+                        }
+                    }
+                    return samples;
+                }));
+            }
+        }
+
+        List<Sample> samples = new ArrayList<>();
+        for (Future<List<Sample>> worker : workers) {
+            samples.addAll(worker.get());
+        }
+        double seconds = duration.toNanos() / 1e9;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("target", target);
+        report.put("concurrency", concurrency);
+        report.put("durationSeconds", seconds);
+        report.put("total", summarize(samples, seconds));
+        Map<String, Object> perEndpoint = new LinkedHashMap<>();
+        for (int e = 0; e < names.size(); e++) {
+            int endpoint = e;
+            perEndpoint.put(names.get(e), summarize(samples.stream().filter(s -> s.endpoint() == endpoint).toList(), seconds));
+        }
+        report.put("endpoints", perEndpoint);
+
+        System.out.printf("%-10s %9s %8s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        print("total", report.get("total"));
+        perEndpoint.forEach(LoadDriver::print);
+        if (out != null) {
+            Files.write(Path.of(out), new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsBytes(report));
+            System.out.println("Report written to " + out);
+        }
+    }
+
+    private static Map<String, Object> summarize(List<Sample> samples, double seconds) {
+        long[] nanos = samples.stream().mapToLong(Sample::nanos).sorted().toArray();
+        long errors = samples.stream().filter(s -> s.status() < 200 || s.status() >= 400).count();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", nanos.length);
+        summary.put("errors", errors);
+        summary.put("throughput", nanos.length / seconds);
+        summary.put("p50Millis", percentile(nanos, 50));
+        summary.put("p90Millis", percentile(nanos, 90));
+        summary.put("p99Millis", percentile(nanos, 99));
+        summary.put("maxMillis", nanos.length > 0 ? nanos[nanos.length - 1] / 1e6 : 0.0);
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        samples.stream().mapToInt(Sample::status).sorted()
+                .forEach(status -> statuses.merge(status < 0 ? "io-error" : Integer.toString(status), 1L, Long::sum));
+        summary.put("statuses", statuses);
+        return summary;
+    }
+
+    // Nearest-rank percentile of sorted nanos, in milliseconds
+    private static double percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(String name, Object summary) {
+        Map<String, Object> s = (Map<String, Object>) summary;
+        System.out.printf("%-10s %9d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n", name, s.get("requests"), s.get("errors"),
+                s.get("throughput"), s.get("p50Millis"), s.get("p90Millis"), s.get("p99Millis"), s.get("maxMillis"));
+    }
+
+    // Scaled cumulative weights for binary-search sampling
+    private static int[] cumulative(double[] weights) {
+        double total = Arrays.stream(weights).sum();
+        int[] cdf = new int[weights.length];
+        double running = 0;
+        for (int i = 0; i < weights.length; i++) {
+            running += weights[i];
+            cdf[i] = (int) Math.round(running / total * Integer.MAX_VALUE);
+        }
+        cdf[cdf.length - 1] = Integer.MAX_VALUE;
+        return cdf;
+    }
+
+    private static int pick(int[] cdf, ThreadLocalRandom random) {
+        int draw = random.nextInt(Integer.MAX_VALUE);
+        int index = Arrays.binarySearch(cdf, draw + 1);
+        return index >= 0 ? index : -index - 1;
+    }
+}
@@ -0,0 +1,306 @@
+package org.gitstats.loadtest;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic GitHub-shaped data: the same login (and churn period) always
+ * produces the same user, repos, events and calendar, so ETags stay stable and
+ * caches behave as they would against GitHub. Objects carry the usual clutter
+ * of URL fields so payload sizes are realistic.
+ */
+final class SimulatedData {
+
+    private static final String API = "https://api.github.com";
+    private static final String[] LANGUAGES = {
+        "JavaScript", "Python", "Java", "TypeScript", "Go", "C++", "Rust", "Kotlin", "Shell", "HTML", "Ruby", "C"
+    };
+    private static final String[] EVENT_TYPES = {
+        "PushEvent", "PushEvent", "PushEvent", "PushEvent", "PushEvent", "CreateEvent", "WatchEvent",
+        "IssuesEvent", "IssueCommentEvent", "PullRequestEvent", "DeleteEvent", "ForkEvent", "ReleaseEvent"
+    };
+    private static final String[] COMMIT_MESSAGES = {
+        "Fix build", "Add tests for parser", "Refactor cache layer", "Bump dependencies", "Update README", "WIP"
+    };
+    private static final Instant EPOCH_2012 = Instant.parse("2012-01-01T00:00:00Z");
+    // "Now" of the generated data when churn is off
+    private static final Instant FROZEN_NOW = Instant.parse("2025-06-01T12:00:00Z");
+
+    private final SimulatorConfig config;
+
+    SimulatedData(SimulatorConfig config) {
+        this.config = config;
+    }
+
+    private static Random random(String... parts) {
+        return new Random(String.join("\u0000", parts).hashCode() * 0x9E3779B97F4A7C15L);
+    }
+
+    private static long id(String... parts) {
+        return Math.abs(String.join("/", parts).hashCode() % 900_000_000L) + 1_000_000;
+    }
+
+    private static String timestamp(Instant instant) {
+        return instant.truncatedTo(ChronoUnit.SECONDS).toString();
+    }
+
+    Map<String, Object> owner(String login) {
+        String url = API + "/users/" + login;
+        Map<String, Object> owner = new LinkedHashMap<>();
+        owner.put("login", login);
+        owner.put("id", id(login));
+        owner.put("node_id", "U_" + Long.toHexString(id(login)));
+        owner.put("avatar_url", "https://avatars.githubusercontent.com/u/" + id(login) + "?v=4");
+        owner.put("gravatar_id", "");
+        owner.put("url", url);
+        owner.put("html_url", "https://github.com/" + login);
+        owner.put("followers_url", url + "/followers");
+        owner.put("following_url", url + "/following{/other_user}");
+        owner.put("gists_url", url + "/gists{/gist_id}");
+        owner.put("starred_url", url + "/starred{/owner}{/repo}");
+        owner.put("subscriptions_url", url + "/subscriptions");
+        owner.put("organizations_url", url + "/orgs");
+        owner.put("repos_url", url + "/repos");
+        owner.put("events_url", url + "/events{/privacy}");
+        owner.put("received_events_url", url + "/received_events");
+        owner.put("type", "User");
+        owner.put("site_admin", false);
+        return owner;
+    }
+
+    Map<String, Object> user(String login) {
+        Random random = random("user", login);
+        Map<String, Object> user = owner(login);
+        user.put("name", "Sim " + login);
+        user.put("company", random.nextBoolean() ? null : "@simulated");
+        user.put("blog", "");
+        user.put("location", random.nextBoolean() ? "Pune, India" : null);
+        user.put("email", null);
+        user.put("hireable", null);
+        user.put("bio", "Simulated developer " + login);
+        user.put("twitter_username", null);
+        user.put("public_repos", repoCount(login));
+        user.put("public_gists", random.nextInt(20));
+        user.put("followers", (int) (Math.pow(random.nextDouble(), 4) * 5_000));
+        user.put("following", random.nextInt(200));
+        user.put("created_at", timestamp(EPOCH_2012.plus(random.nextInt(4_000), ChronoUnit.DAYS)));
+        user.put("updated_at", timestamp(periodStart(churnPeriod()).minus(random.nextInt(30), ChronoUnit.DAYS)));
+        return user;
+    }
+
+    int repoCount(String login) {
+        // Most users have a few repos, some have hundreds
+        double draw = random("repo-count", login).nextDouble();
+        return (int) (draw * draw * draw * config.maxRepos());
+    }
+
+    List<Map<String, Object>> repos(String login) {
+        int count = repoCount(login);
+        List<Map<String, Object>> repos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            repos.add(repo(login, "repo-" + i));
+        }
+        return repos;
+    }
+
+    Map<String, Object> repo(String login, String name) {
+        Random random = random("repo", login, name);
+        String fullName = login + "/" + name;
+        String url = API + "/repos/" + fullName;
+        int stars = (int) (Math.pow(random.nextDouble(), 6) * 2_000);
+        Instant created = EPOCH_2012.plus(random.nextInt(4_500), ChronoUnit.DAYS);
+
+        Map<String, Object> repo = new LinkedHashMap<>();
+        repo.put("id", id(fullName));
+        repo.put("node_id", "R_" + Long.toHexString(id(fullName)));
+        repo.put("name", name);
+        repo.put("full_name", fullName);
+        repo.put("private", false);
+        repo.put("owner", owner(login));
+        repo.put("html_url", "https://github.com/" + fullName);
+        repo.put("description", random.nextInt(4) == 0 ? null : "Simulated project " + name);
+        repo.put("fork", random.nextInt(5) == 0);
+        repo.put("url", url);
+        for (String suffix : List.of("forks", "keys{/key_id}", "collaborators{/collaborator}", "teams", "hooks",
+                "issues/events{/number}", "events", "assignees{/user}", "branches{/branch}", "tags", "git/blobs{/sha}",
+                "git/tags{/sha}", "git/refs{/sha}", "git/trees{/sha}", "statuses/{sha}", "languages", "stargazers",
+                "contributors", "subscribers", "subscription", "commits{/sha}", "git/commits{/sha}", "comments{/number}",
+                "issues/comments{/number}", "contents/{+path}", "compare/{base}...{head}", "merges", "downloads",
+                "issues{/number}", "pulls{/number}", "milestones{/number}", "labels{/name}", "releases{/id}", "deployments")) {
+            String key = suffix.replaceAll("/?\\{.*", "").replace('/', '_');
+            repo.put(key + "_url", url + "/" + suffix);
+        }
+        repo.put("created_at", timestamp(created));
+        repo.put("updated_at", timestamp(pushedAt(login, name)));
+        repo.put("pushed_at", timestamp(pushedAt(login, name)));
+        repo.put("git_url", "git://github.com/" + fullName + ".git");
+        repo.put("ssh_url", "git@github.com:" + fullName + ".git");
+        repo.put("clone_url", "https://github.com/" + fullName + ".git");
+        repo.put("homepage", null);
+        repo.put("size", random.nextInt(50_000));
+        repo.put("stargazers_count", stars);
+        repo.put("watchers_count", stars);
+        repo.put("language", random.nextInt(8) == 0 ? null : LANGUAGES[(int) (Math.pow(random.nextDouble(), 2) * LANGUAGES.length)]);
+        repo.put("has_issues", true);
+        repo.put("has_wiki", random.nextBoolean());
+        repo.put("forks_count", stars / 5);
+        repo.put("archived", random.nextInt(10) == 0);
+        repo.put("open_issues_count", random.nextInt(10));
+        repo.put("license", random.nextBoolean() ? null : Map.of("key", "mit", "name", "MIT License", "spdx_id", "MIT"));
+        repo.put("topics", List.of("simulated", LANGUAGES[random.nextInt(LANGUAGES.length)].toLowerCase()));
+        repo.put("visibility", "public");
+        repo.put("default_branch", "main");
+        return repo;
+    }
+
+    // Every 20th churn period a repo may be pushed to again, so caches keyed by pushed_at see changes
+    private Instant pushedAt(String login, String name) {
+        long period = churnPeriod() / 20;
+        Random random = random("pushed", login, name, Long.toString(period));
+        return periodStart(period * 20).minus(random.nextInt(400 * 24), ChronoUnit.HOURS);
+    }
+
+    Map<String, Long> languages(String login, String name) {
+        Random random = random("languages", login, name);
+        Map<String, Long> languages = new LinkedHashMap<>();
+        int count = 1 + random.nextInt(4);
+        long bytes = 200_000 + random.nextInt(2_000_000);
+        for (int i = 0; i < count && bytes > 0; i++) {
+            long share = i == count - 1 ? bytes : (long) (bytes * (0.5 + random.nextDouble() * 0.4));
+            languages.merge(LANGUAGES[random.nextInt(LANGUAGES.length)], share, Long::sum);
+            bytes -= share;
+        }
+        return languages;
+    }
+
+    private long churnStepMillis() {
+        return config.churn().isZero() ? 3_600_000 : config.churn().toMillis();
+    }
+
+    private long churnPeriod() {
+        long now = config.churn().isZero() ? FROZEN_NOW.toEpochMilli() : System.currentTimeMillis();
+        return now / churnStepMillis();
+    }
+
+    private Instant periodStart(long period) {
+        return Instant.ofEpochMilli(period * churnStepMillis());
+    }
+
+    // Newest first, like GitHub; one more event appears per churn period and the oldest drops off
+    List<Map<String, Object>> events(String login) {
+        long period = churnPeriod();
+        Random sizing = random("event-count", login);
+        int count = Math.min(config.maxEvents(), 20 + sizing.nextInt(Math.max(1, config.maxEvents())));
+        int repoCount = Math.max(1, repoCount(login));
+
+        List<Map<String, Object>> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long sequence = period - i;
+            Random random = random("event", login, Long.toString(sequence));
+            // Spread around the period start so hour-of-day insights have something to show
+            Instant createdAt = periodStart(sequence).minusSeconds(random.nextInt(36 * 3_600));
+            String type = EVENT_TYPES[random.nextInt(EVENT_TYPES.length)];
+            String repoName = login + "/repo-" + random.nextInt(repoCount);
+
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("id", Long.toString(40_000_000_000L + Math.floorMod(id(login, Long.toString(sequence)), 1_000_000_000L)));
+            event.put("type", type);
+            event.put("actor", Map.of("id", id(login), "login", login, "display_login", login,
+                    "url", API + "/users/" + login, "avatar_url", "https://avatars.githubusercontent.com/u/" + id(login)));
+            event.put("repo", Map.of("id", id(repoName), "name", repoName, "url", API + "/repos/" + repoName));
+            event.put("payload", payload(type, random));
+            event.put("public", true);
+            event.put("created_at", timestamp(createdAt));
+            events.add(event);
+        }
+        events.sort(Comparator.comparing((Map<String, Object> event) -> (String) event.get("created_at")).reversed());
+        return events;
+    }
+
+    private static Map<String, Object> payload(String type, Random random) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        switch (type) {
+            case "PushEvent" -> {
+                int size = 1 + random.nextInt(4);
+                List<Map<String, Object>> commits = new ArrayList<>(size);
+                for (int c = 0; c < size; c++) {
+                    commits.add(Map.of(
+                            "sha", sha(random),
+                            "author", Map.of("email", "dev@example.com", "name", "Sim Dev"),
+                            "message", COMMIT_MESSAGES[random.nextInt(COMMIT_MESSAGES.length)],
+                            "distinct", true,
+                            "url", API + "/commits/" + c));
+                }
+                payload.put("push_id", 20_000_000_000L + random.nextInt(1_000_000_000));
+                payload.put("size", size);
+                payload.put("distinct_size", size);
+                payload.put("ref", "refs/heads/main");
+                payload.put("head", sha(random));
+                payload.put("before", sha(random));
+                payload.put("commits", commits);
+            }
+            case "IssuesEvent", "IssueCommentEvent", "PullRequestEvent" -> {
+                payload.put("action", "opened");
+                payload.put("number", 1 + random.nextInt(500));
+                payload.put("body", "Steps to reproduce: run it and observe the output. ".repeat(1 + random.nextInt(6)));
+            }
+            default -> {
+                payload.put("ref", "main");
+                payload.put("ref_type", "branch");
+                payload.put("pusher_type", "user");
+            }
+        }
+        return payload;
+    }
+
+    private static String sha(Random random) {
+        byte[] bytes = new byte[20];
+        random.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    // user.contributionsCollection for [from, to], in the week/day shape of contributions.graphql
+    Map<String, Object> contributionsCollection(String login, LocalDate from, LocalDate to) {
+        List<Map<String, Object>> weeks = new ArrayList<>();
+        List<Map<String, Object>> days = new ArrayList<>();
+        long total = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (date.getDayOfWeek() == DayOfWeek.SUNDAY && !days.isEmpty()) {
+                weeks.add(Map.of("contributionDays", days));
+                days = new ArrayList<>();
+            }
+            int count = dailyContributions(login, date);
+            total += count;
+            Map<String, Object> day = new LinkedHashMap<>();
+            day.put("contributionCount", count);
+            day.put("date", date.toString());
+            day.put("weekday", date.getDayOfWeek().getValue() % 7);
+            days.add(day);
+        }
+        if (!days.isEmpty()) {
+            weeks.add(Map.of("contributionDays", days));
+        }
+        Map<String, Object> calendar = new LinkedHashMap<>();
+        calendar.put("totalContributions", total);
+        calendar.put("weeks", weeks);
+        return Map.of("contributionCalendar", calendar);
+    }
+
+    private static int dailyContributions(String login, LocalDate date) {
+        Random random = random("day", login, date.toString());
+        if (date.isAfter(LocalDate.now(ZoneOffset.UTC)) || random.nextInt(3) == 0) {
+            return 0;
+        }
+        return (int) (-Math.log(1 - random.nextDouble()) * 4);
+    }
+}
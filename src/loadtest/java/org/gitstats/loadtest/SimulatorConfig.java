@@ -0,0 +1,45 @@
+package org.gitstats.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Knobs of the {@link GitHubSimulator}; every field maps to a {@code --kebab-case}
+ * argument of the same name.
+ *
+ * @param latency      fixed delay added to every response
+ * @param jitter       extra uniformly random delay on top of {@code latency}
+ * @param maxRepos     upper bound of generated public repos per user
+ * @param maxEvents    events available per user (GitHub caps this at 300)
+ * @param etags        send ETags and answer matching If-None-Match with 304
+ * @param rateLimit    requests per window per token ("anonymous" for none), per resource
+ * @param rateWindow   length of a rate-limit window
+ * @param errorRate    fraction of requests answered with 502 before doing anything else
+ * @param churn        every user gets one new event per churn period (0 = data never changes)
+ */
+record SimulatorConfig(
+    int port,
+    Duration latency,
+    Duration jitter,
+    int maxRepos,
+    int maxEvents,
+    boolean etags,
+    int rateLimit,
+    Duration rateWindow,
+    double errorRate,
+    Duration churn
+) {
+
+    static SimulatorConfig from(Args args) {
+        return new SimulatorConfig(
+                args.integer("port", 9090),
+                args.duration("latency", Duration.ofMillis(80)),
+                args.duration("jitter", Duration.ofMillis(40)),
+                args.integer("max-repos", 250),
+                args.integer("max-events", 300),
+                args.flag("etags", true),
+                args.integer("rate-limit", 5000),
+                args.duration("rate-window", Duration.ofHours(1)),
+                args.decimal("error-rate", 0.0),
+                args.duration("churn", Duration.ofMinutes(5)));
+    }
+}
@@ -0,0 +1,18 @@
+package org.gitstats.backend.config;
+
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@EnableConfigurationProperties(GitHubCacheProperties.class)
+public class CacheConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService cacheRefreshExecutor(Environment environment, GitHubCacheProperties properties) {
+        return ExecutorConfig.newExecutor(environment, properties.getRefreshThreads(), "github-cache-refresh-");
+    }
+}
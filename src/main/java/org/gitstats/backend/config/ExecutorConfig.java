@@ -0,0 +1,67 @@
+package org.gitstats.backend.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Executors for outbound GitHub I/O. With spring.threads.virtual.enabled=true
+ * (which also moves Tomcat request handling onto virtual threads) every task
+ * gets its own virtual thread; otherwise a fixed pool of platform threads is used.
+ * Cache misses load outside Caffeine's map lock (AsyncCaches), so a GitHub call
+ * never pins the carrier of a virtual thread.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    // Shared by all paginated fetches; per-call concurrency is bounded by GitHubPaginator
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService pageFetchExecutor(Environment environment,
+                                             @Value("${github.pagination.threads:32}") int threads) {
+        return newExecutor(environment, threads, "github-page-");
+    }
+
+    // Runs the parallel legs of the aggregated profile endpoint
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService profileExecutor(Environment environment,
+                                           @Value("${github.profile.threads:64}") int threads) {
+        return newExecutor(environment, threads, "github-profile-");
+    }
+
+    // Workers of the friends comparison / leaderboard; per-request concurrency is bounded by LeaderboardService
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService compareExecutor(Environment environment,
+                                           @Value("${github.compare.threads:32}") int threads) {
+        return newExecutor(environment, threads, "github-compare-");
+    }
+
+    // Per-repository /languages calls; per-request concurrency is bounded by RepoLanguageService
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService languageExecutor(Environment environment,
+                                            @Value("${github.languages.threads:32}") int threads) {
+        return newExecutor(environment, threads, "github-languages-");
+    }
+
+    static ExecutorService newExecutor(Environment environment, int platformThreads, String prefix) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 1).factory());
+        }
+        return Executors.newFixedThreadPool(platformThreads, namedDaemonThreads(prefix));
+    }
+
+    static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package org.gitstats.backend.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "github.cache")
+public class GitHubCacheProperties {
+
+    // Threads used for background (stale-while-revalidate) refreshes
+    private int refreshThreads = 4;
+
+    private Resource users = new Resource(Duration.ofMinutes(5), Duration.ofHours(1), 10_000);
+    private Resource repos = new Resource(Duration.ofMinutes(10), Duration.ofHours(1), 200_000);
+    private Resource events = new Resource(Duration.ofMinutes(2), Duration.ofMinutes(30), 100_000);
+
+    @Data
+    public static class Resource {
+        // After this an entry is still served, but a single background refresh is started
+        private Duration refreshAfter;
+        // After this an entry is dropped and the next caller waits for a fresh load
+        private Duration expireAfter;
+        // Entries for users, list elements for repos/events
+        private long maximumWeight;
+
+        public Resource() {
+        }
+
+        public Resource(Duration refreshAfter, Duration expireAfter, long maximumWeight) {
+            this.refreshAfter = refreshAfter;
+            this.expireAfter = expireAfter;
+            this.maximumWeight = maximumWeight;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.gitstats.backend.config;
 
+import org.gitstats.backend.service.GitHubMetrics;
+import org.gitstats.backend.service.RateLimitScheduler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,10 +15,12 @@ public class GraphQlConfig {
     private String githubGraphqlEndpoint;
 
     @Bean
-    public HttpGraphQlClient graphQlClient() {
-        // Create a WebClient for the GraphQL endpoint
-        WebClient webClient = WebClient.builder()
+    public HttpGraphQlClient graphQlClient(WebClient.Builder webClientBuilder, RateLimitScheduler rateLimitScheduler, GitHubMetrics metrics) {
+        // Create a WebClient for the GraphQL endpoint (on the shared GitHub transport, see HttpClientConfig)
+        WebClient webClient = webClientBuilder
                 .baseUrl(githubGraphqlEndpoint)
+                .filter(rateLimitScheduler.filter())
+                .filter(metrics.filter())
                 .build();
         
         // We will need to enhance this client later in the GitHubService 
@@ -0,0 +1,82 @@
+package org.gitstats.backend.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * The one outbound HTTP transport for GitHub: a Reactor Netty client with its
+ * own connection pool, shared by the RestClient (REST calls) and every
+ * WebClient (GraphQL and the reactive service). HTTP/2 is negotiated over TLS
+ * where offered, so concurrent calls multiplex over a few connections;
+ * HTTP/1.1 connections are kept alive and reused.
+ *
+ * Connect, pool-acquire and response timeouts bound every call, so a stalled
+ * socket fails the request instead of holding its thread. Responses are
+ * requested gzip-compressed and decoded transparently. Pool gauges are
+ * published under reactor.netty.connection.provider.* (name=github).
+ *
+ * Host names go through Netty's asynchronous DNS resolver, which reads
+ * /etc/resolv.conf directly on Linux and needs no native library.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "disposeLater")
+    public ConnectionProvider githubConnectionProvider(
+        @Value("${github.http.max-connections:50}") int maxConnections,
+        @Value("${github.http.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout,
+        @Value("${github.http.max-idle-time:30s}") Duration maxIdleTime,
+        @Value("${github.http.max-life-time:5m}") Duration maxLifeTime
+    ) {
+        return ConnectionProvider.builder("github")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                // Close before the server or a middlebox silently drops an idle connection
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(maxIdleTime)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public HttpClient githubHttpClient(
+        ConnectionProvider githubConnectionProvider,
+        @Value("${github.http.protocols:H2,HTTP11}") List<HttpProtocol> protocols,
+        @Value("${github.http.connect-timeout:3s}") Duration connectTimeout,
+        @Value("${github.http.response-timeout:10s}") Duration responseTimeout
+    ) {
+        HttpClient client = HttpClient.create(githubConnectionProvider)
+                .protocol(protocols.toArray(HttpProtocol[]::new))
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(connectTimeout.toMillis()))
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                // Longest wait for the response headers, and then between reads of the body
+                .responseTimeout(responseTimeout)
+                .compress(true);
+        // HTTP/2 is negotiated with ALPN, which needs TLS configured up front
+        return protocols.contains(HttpProtocol.H2) ? client.secure() : client;
+    }
+
+    @Bean
+    public RestClientCustomizer githubRestClientTransport(HttpClient githubHttpClient) {
+        return builder -> builder.requestFactory(new ReactorClientHttpRequestFactory(githubHttpClient));
+    }
+
+    @Bean
+    public WebClientCustomizer githubWebClientTransport(HttpClient githubHttpClient) {
+        return builder -> builder.clientConnector(new ReactorClientHttpConnector(githubHttpClient));
+    }
+}
@@ -0,0 +1,75 @@
+package org.gitstats.backend.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.gitstats.backend.controller.ReactiveUserController;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.util.StringUtils;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Serves the /api/reactive routes on a Reactor Netty server of their own. The main
+ * application runs on Spring MVC (Tomcat), where reactive return values are written
+ * with blocking I/O; here a slow client only holds a connection, not a thread.
+ * CORS allows the same origins as WebConfig; the MVC filters (e.g. ForwardedHeaderFilter)
+ * do not apply.
+ */
+@Configuration
+@ConditionalOnProperty(name = "github.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveServerConfig {
+
+    @Value("${app.cors.allowed-origins}")
+    private String allowedOrigins;
+
+    @Bean(destroyMethod = "disposeNow")
+    public DisposableServer reactiveServer(ReactiveUserController controller,
+                                           ObjectMapper objectMapper,
+                                           @Value("${github.reactive.port:8082}") int port) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .webFilter(new CorsWebFilter(corsConfigurationSource()))
+                .build();
+        HttpHandler handler = RouterFunctions.toHttpHandler(controller.routes(), strategies);
+        return HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(handler))
+                .bindNow(Duration.ofSeconds(30));
+    }
+
+    private UrlBasedCorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration cors = new CorsConfiguration();
+        // The property is a comma-separated list
+        List<String> origins = new ArrayList<>(StringUtils.commaDelimitedListToSet(allowedOrigins));
+        origins.add("http://localhost:3000");
+        cors.setAllowedOrigins(origins);
+        cors.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        cors.addAllowedHeader("*");
+        cors.setExposedHeaders(List.of("Set-Cookie", "XSRF-TOKEN"));
+        cors.setAllowCredentials(true);
+        cors.setMaxAge(3600L);
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", cors);
+        return source;
+    }
+}
@@ -0,0 +1,58 @@
+package org.gitstats.backend.controller;
+
+import org.gitstats.backend.service.EncodedBodyCache;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Conditional responses for bodies we can identify by an ETag up front, written
+ * without going through a message converter's serialization.
+ */
+final class CachedResponses {
+
+    private CachedResponses() {
+    }
+
+    // Pre-encoded JSON in the coding the client prefers, or 304 when it already has it
+    static ResponseEntity<byte[]> json(EncodedBodyCache.EncodedBody body, String acceptEncoding, String ifNoneMatch) {
+        EncodedBodyCache.Representation representation = body.select(acceptEncoding);
+        if (matches(ifNoneMatch, representation.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(representation.etag())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(representation.body().length)
+                .eTag(representation.etag())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                // Cacheable, but clients revalidate (cheap with the ETag) before reuse
+                .cacheControl(CacheControl.noCache());
+        if (representation.contentEncoding() != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, representation.contentEncoding());
+        }
+        return response.body(representation.body());
+    }
+
+    // If-None-Match uses the weak comparison, so a W/ prefix added by a proxy still matches
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,69 @@
+package org.gitstats.backend.controller;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import org.gitstats.backend.service.DeveloperCardService;
+import org.gitstats.backend.service.RateLimitExceededException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.HttpClientErrorException;
+
+@RestController
+@RequestMapping("/api")
+public class CardController {
+
+    private final DeveloperCardService developerCardService;
+    private final CacheControl cacheControl;
+
+    public CardController(DeveloperCardService developerCardService,
+                          @Value("${github.card.max-age:6h}") Duration maxAge,
+                          @Value("${github.card.stale-while-revalidate:1d}") Duration staleWhileRevalidate) {
+        this.developerCardService = developerCardService;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic().staleWhileRevalidate(staleWhileRevalidate);
+    }
+
+    // Embeddable image (e.g. in a README); format is svg or png. Revalidation with the ETag skips rendering.
+    @GetMapping("/users/{username}/card")
+    public ResponseEntity<?> getCard(@PathVariable String username,
+                                     @RequestParam(defaultValue = "svg") String format,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        DeveloperCardService.Format cardFormat;
+        try {
+            cardFormat = DeveloperCardService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid format: " + format + " (expected svg or png)");
+        }
+        try {
+            DeveloperCardService.PreparedCard card = developerCardService.prepare(username, cardFormat);
+            if (CachedResponses.matches(ifNoneMatch, card.etag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(card.etag()).cacheControl(cacheControl).build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(cardFormat.getMediaType()))
+                    .eTag(card.etag())
+                    .cacheControl(cacheControl)
+                    // An SVG opened directly must not be able to run script on this origin
+                    .header("Content-Security-Policy", "default-src 'none'; style-src 'unsafe-inline'")
+                    .body(developerCardService.render(card));
+        } catch (HttpClientErrorException.NotFound e) {
+            return ResponseEntity.status(404).body("GitHub user not found: " + username);
+        } catch (RateLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(500).body("Error rendering developer card: " + e.getMessage());
+        }
+    }
+}
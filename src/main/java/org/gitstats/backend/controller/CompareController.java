@@ -0,0 +1,73 @@
+package org.gitstats.backend.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+import org.gitstats.backend.dto.CompareRequestDTO;
+import org.gitstats.backend.dto.LeaderboardDTO;
+import org.gitstats.backend.service.LeaderboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api")
+public class CompareController {
+
+    private final LeaderboardService leaderboardService;
+
+    public CompareController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    // Streams a "user" event per username as soon as it is fetched, then one "leaderboard" event
+    @PostMapping("/compare")
+    public ResponseEntity<?> compare(@RequestBody CompareRequestDTO request) {
+        if (request.getUsernames() == null || request.getUsernames().isEmpty()) {
+            return ResponseEntity.badRequest().body("At least one username is required");
+        }
+        if (request.getUsernames().size() > leaderboardService.getMaxUsers()) {
+            return ResponseEntity.badRequest().body("At most " + leaderboardService.getMaxUsers() + " usernames can be compared");
+        }
+        if (request.getTop() < 1 || request.getTop() > leaderboardService.getMaxUsers()) {
+            return ResponseEntity.badRequest().body("top must be between 1 and " + leaderboardService.getMaxUsers());
+        }
+        // A ranking never has more entries than there are users
+        int top = Math.min(request.getTop(), request.getUsernames().size());
+
+        SseEmitter emitter = new SseEmitter(0L);
+        CompletableFuture<LeaderboardDTO> comparison = leaderboardService.compare(request.getUsernames(), top, summary -> {
+            try {
+                emitter.send(SseEmitter.event().name("user").data(summary));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        // Once the stream is closed (client gone, timeout, error) nobody reads the remaining users
+        Runnable cancel = () -> comparison.cancel(false);
+        emitter.onCompletion(cancel);
+        emitter.onTimeout(cancel);
+        emitter.onError(error -> cancel.run());
+        comparison.whenComplete((leaderboard, error) -> {
+            if (error instanceof CancellationException) {
+                return;
+            }
+            if (error != null) {
+                emitter.completeWithError(error);
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().name("leaderboard").data(leaderboard));
+                emitter.complete();
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return ResponseEntity.ok(emitter);
+    }
+}
@@ -0,0 +1,122 @@
+package org.gitstats.backend.controller;
+
+import org.gitstats.backend.dto.GitHubEventDTO;
+import org.gitstats.backend.dto.GitHubRepoDTO;
+import org.gitstats.backend.service.RateLimitExceededException;
+import org.gitstats.backend.service.ReactiveGitHubService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variants of the {@link UserController} endpoints, served on their
+ * own Reactor Netty server (see ReactiveServerConfig) rather than through Spring
+ * MVC, so neither a request thread nor a blocking write is held while GitHub or a
+ * slow client responds. List endpoints stream newline-delimited JSON as elements
+ * are decoded, at the pace the client reads them. Errors map to the same statuses
+ * as UserController; for list endpoints that holds as long as the first page
+ * fails, since later pages fail mid-stream after the 200 went out. Public data
+ * reads through the shared response caches (see {@link ReactiveGitHubService}).
+ */
+@Component
+public class ReactiveUserController {
+
+    private final ReactiveGitHubService reactiveGitHubService;
+
+    public ReactiveUserController(ReactiveGitHubService reactiveGitHubService) {
+        this.reactiveGitHubService = reactiveGitHubService;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .GET("/api/reactive/users/{username}", this::getPublicUserInfo)
+                .GET("/api/reactive/users/{username}/repos", this::getPublicRepos)
+                .GET("/api/reactive/users/{username}/languages", this::getLanguageStats)
+                .GET("/api/reactive/users/{username}/events", this::getPublicEvents)
+                .GET("/api/reactive/user/contributions", this::getAuthenticatedUserContributions)
+                .build();
+    }
+
+    // One NDJSON line: {"error": "..."}
+    record Failure(String error) {
+    }
+
+    private static Mono<ServerResponse> tooManyRequests(RateLimitExceededException e) {
+        return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .bodyValue(e.getMessage());
+    }
+
+    public Mono<ServerResponse> getPublicUserInfo(ServerRequest request) {
+        String username = request.pathVariable("username");
+        return reactiveGitHubService.getPublicUserInfo(username)
+                .flatMap(user -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(user))
+                .onErrorResume(WebClientResponseException.NotFound.class,
+                        e -> ServerResponse.status(HttpStatus.NOT_FOUND).bodyValue("GitHub user not found: " + username))
+                .onErrorResume(RateLimitExceededException.class, ReactiveUserController::tooManyRequests)
+                .onErrorResume(e -> ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .bodyValue("Error fetching data from GitHub: " + e.getMessage()));
+    }
+
+    // Error bodies are a single NDJSON line holding an error object
+    public Mono<ServerResponse> getPublicRepos(ServerRequest request) {
+        String username = request.pathVariable("username");
+        return stream(reactiveGitHubService.getPublicRepos(username), GitHubRepoDTO.class, username,
+                "Error fetching repositories from GitHub: ");
+    }
+
+    public Mono<ServerResponse> getLanguageStats(ServerRequest request) {
+        String username = request.pathVariable("username");
+        return reactiveGitHubService.getLanguageStats(username)
+                .flatMap(stats -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(stats))
+                .onErrorResume(WebClientResponseException.NotFound.class,
+                        e -> ServerResponse.status(HttpStatus.NOT_FOUND).bodyValue("GitHub user not found: " + username))
+                .onErrorResume(RateLimitExceededException.class, ReactiveUserController::tooManyRequests)
+                .onErrorResume(e -> ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .bodyValue("Error fetching language data from GitHub: " + e.getMessage()));
+    }
+
+    public Mono<ServerResponse> getPublicEvents(ServerRequest request) {
+        String username = request.pathVariable("username");
+        return stream(reactiveGitHubService.getPublicEvents(username), GitHubEventDTO.class, username,
+                "Error fetching events from GitHub: ");
+    }
+
+    private static <T> Mono<ServerResponse> stream(Mono<Flux<T>> elements, Class<T> type,
+                                                   String username, String failure) {
+        return elements
+                .flatMap(flux -> ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(flux, type))
+                .onErrorResume(WebClientResponseException.NotFound.class,
+                        e -> line(ServerResponse.status(HttpStatus.NOT_FOUND), "GitHub user not found: " + username))
+                .onErrorResume(RateLimitExceededException.class, e -> line(ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds())), e.getMessage()))
+                .onErrorResume(e -> line(ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR), failure + e.getMessage()));
+    }
+
+    private static Mono<ServerResponse> line(ServerResponse.BodyBuilder response, String message) {
+        return response.contentType(MediaType.APPLICATION_NDJSON).body(Flux.just(new Failure(message)), Failure.class);
+    }
+
+    public Mono<ServerResponse> getAuthenticatedUserContributions(ServerRequest request) {
+        String authHeader = request.headers().firstHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ServerResponse.status(HttpStatus.UNAUTHORIZED).bodyValue("Missing or invalid token");
+        }
+        return reactiveGitHubService.getContributionData(authHeader.substring(7))
+                .flatMap(data -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(data))
+                .onErrorResume(WebClientResponseException.Unauthorized.class,
+                        e -> ServerResponse.status(HttpStatus.UNAUTHORIZED).bodyValue("Invalid or expired token"))
+                .onErrorResume(RateLimitExceededException.class, ReactiveUserController::tooManyRequests)
+                .onErrorResume(e -> ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .bodyValue("Error fetching contribution data: " + e.getMessage()));
+    }
+}
@@ -1,13 +1,30 @@
 package org.gitstats.backend.controller;
 
+import java.time.DateTimeException;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
+import org.gitstats.backend.dto.ContributionHistoryDTO;
+import org.gitstats.backend.dto.ContributionStatsDTO;
 import org.gitstats.backend.dto.GitHubEventDTO;
+import org.gitstats.backend.dto.GitHubProfileDTO;
 import org.gitstats.backend.dto.GitHubRepoDTO;
 import org.gitstats.backend.dto.GitHubUserDTO;
+import org.gitstats.backend.service.BackgroundRefreshScheduler;
+import org.gitstats.backend.service.CommitInsightsService;
+import org.gitstats.backend.service.ContributionAnalyticsService;
+import org.gitstats.backend.service.ContributionHistoryService;
+import org.gitstats.backend.service.EventColumns;
+import org.gitstats.backend.service.EventInsightsService;
 import org.gitstats.backend.service.GitHubService;
+import org.gitstats.backend.service.ProfileService;
+import org.gitstats.backend.service.RateLimitExceededException;
+import org.gitstats.backend.service.RateLimitScheduler;
+import org.gitstats.backend.service.RepoLanguageService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.xml.SourceHttpMessageConverter;
@@ -15,6 +32,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.HttpClientErrorException;
 
@@ -23,17 +41,45 @@ import org.springframework.web.client.HttpClientErrorException;
 public class UserController {
 
     private final GitHubService gitHubService;
+    private final ProfileService profileService;
+    private final RateLimitScheduler rateLimitScheduler;
+    private final ContributionAnalyticsService contributionAnalyticsService;
+    private final ContributionHistoryService contributionHistoryService;
+    private final BackgroundRefreshScheduler backgroundRefreshScheduler;
+    private final EventInsightsService eventInsightsService;
+    private final RepoLanguageService repoLanguageService;
+    private final CommitInsightsService commitInsightsService;
 
     @Autowired
-    public UserController(GitHubService gitHubService) {
+    public UserController(GitHubService gitHubService, ProfileService profileService,
+                          RateLimitScheduler rateLimitScheduler,
+                          ContributionAnalyticsService contributionAnalyticsService,
+                          ContributionHistoryService contributionHistoryService,
+                          BackgroundRefreshScheduler backgroundRefreshScheduler,
+                          EventInsightsService eventInsightsService,
+                          RepoLanguageService repoLanguageService,
+                          CommitInsightsService commitInsightsService) {
         this.gitHubService = gitHubService;
+        this.profileService = profileService;
+        this.rateLimitScheduler = rateLimitScheduler;
+        this.contributionAnalyticsService = contributionAnalyticsService;
+        this.contributionHistoryService = contributionHistoryService;
+        this.backgroundRefreshScheduler = backgroundRefreshScheduler;
+        this.eventInsightsService = eventInsightsService;
+        this.repoLanguageService = repoLanguageService;
+        this.commitInsightsService = commitInsightsService;
+    }
+
+    // GitHub budget exhausted for this caller: tell the client when to come back
+    private ResponseEntity<?> tooManyRequests(RateLimitExceededException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
     }
 
     // Helper method to extract token
     private String extractToken(String authHeader) {
-        System.out.println("check");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            System.out.println("Token extracted: " + authHeader.substring(7));
             return authHeader.substring(7);
 
         }
@@ -42,7 +88,6 @@ public class UserController {
 
     @GetMapping("/user/me")
     public ResponseEntity<?> getCurrentUser(@RequestHeader(value = "Authorization", required = false) String authHeader) {
-        System.out.println("hitt");
         String token = extractToken(authHeader);
         if (token == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
@@ -52,6 +97,8 @@ public class UserController {
             return ResponseEntity.ok(userInfo);
         } catch (HttpClientErrorException.Unauthorized e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid or expired token");
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error fetching user data: " + e.getMessage());
         }
@@ -66,6 +113,8 @@ public class UserController {
         try {
             List<GitHubRepoDTO> repos = gitHubService.getAuthenticatedUserRepos(token);
             return ResponseEntity.ok(repos);
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error fetching repository data: " + e.getMessage());
         }
@@ -81,6 +130,24 @@ public class UserController {
             List<GitHubRepoDTO> repos = gitHubService.getAuthenticatedUserRepos(token);
             Map<String, Long> languageStats = gitHubService.calculateLanguageStats(repos);
             return ResponseEntity.ok(languageStats);
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching language data: " + e.getMessage());
+        }
+    }
+
+    // Weighted by bytes of code in every repository, not just each repository's primary language
+    @GetMapping("/user/languages/bytes")
+    public ResponseEntity<?> getAuthenticatedUserLanguageBytes(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        String token = extractToken(authHeader);
+        if (token == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+        }
+        try {
+            return ResponseEntity.ok(repoLanguageService.getAuthenticatedBreakdown(token));
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error fetching language data: " + e.getMessage());
         }
@@ -95,6 +162,8 @@ public class UserController {
         try {
             List<GitHubEventDTO> events = gitHubService.getAuthenticatedUserEvents(token);
             return ResponseEntity.ok(events);
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error fetching event data: " + e.getMessage());
         }
@@ -109,19 +178,66 @@ public class UserController {
         try {
             Object contributionData = gitHubService.getContributionData(token);
             return ResponseEntity.ok(contributionData);
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error fetching contribution data: " + e.getMessage());
         }
     }
 
+    @GetMapping("/user/contributions/stats")
+    public ResponseEntity<?> getAuthenticatedUserContributionStats(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        String token = extractToken(authHeader);
+        if (token == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+        }
+        try {
+            ContributionStatsDTO stats = contributionAnalyticsService.getStats(token);
+            return ResponseEntity.ok(stats);
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error computing contribution stats: " + e.getMessage());
+        }
+    }
+
+    // Cross-year comparison for the token's owner, or for the given users (max 20 users, 20 years)
+    @GetMapping("/user/contributions/history")
+    public ResponseEntity<?> getContributionHistory(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(defaultValue = "5") int years,
+            @RequestParam(required = false) List<String> users) {
+        String token = extractToken(authHeader);
+        if (token == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+        }
+        if (years < 1 || years > 20 || (users != null && users.size() > 20)) {
+            return ResponseEntity.badRequest().body("years must be 1-20 and at most 20 users can be compared");
+        }
+        try {
+            List<String> logins = users == null || users.isEmpty()
+                    ? List.of(gitHubService.getAuthenticatedLogin(token))
+                    : users;
+            List<ContributionHistoryDTO> history = contributionHistoryService.getHistory(token, logins, years);
+            return ResponseEntity.ok(history);
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error fetching contribution history: " + e.getMessage());
+        }
+    }
+
+    // Cached public data is written from pre-encoded bytes (see EncodedBodyCache)
     @GetMapping("/users/{username}")
-    public ResponseEntity<?> getPublicUserInfo(@PathVariable String username) {
+    public ResponseEntity<?> getPublicUserInfo(@PathVariable String username,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            System.err.println("hit in");
-            GitHubUserDTO userInfo = gitHubService.getPublicUserInfo(username);
-            return ResponseEntity.ok(userInfo);
+            return CachedResponses.json(gitHubService.getPublicUserInfoBody(username), acceptEncoding, ifNoneMatch);
         } catch (HttpClientErrorException.NotFound e) {
             return ResponseEntity.status(404).body("GitHub user not found: " + username);
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
         } catch (RuntimeException e) {
             // Log the exception details
             return ResponseEntity.status(500).body("Error fetching data from GitHub: " + e.getMessage());
@@ -129,13 +245,16 @@ public class UserController {
     }
 
     @GetMapping("/users/{username}/repos")
-    public ResponseEntity<?> getPublicRepos(@PathVariable String username) {
+    public ResponseEntity<?> getPublicRepos(@PathVariable String username,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<GitHubRepoDTO> repos = gitHubService.getPublicRepos(username);
-            return ResponseEntity.ok(repos);
+            return CachedResponses.json(gitHubService.getPublicReposBody(username), acceptEncoding, ifNoneMatch);
         } catch (HttpClientErrorException.NotFound e) {
             // Although unlikely for the repos endpoint itself, the user might not exist
             return ResponseEntity.status(404).body("GitHub user not found or no access: " + username);
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
         } catch (RuntimeException e) {
             // Log the exception details
             return ResponseEntity.status(500).body("Error fetching repo data from GitHub: " + e.getMessage());
@@ -149,25 +268,98 @@ public class UserController {
             return ResponseEntity.ok(languageStats);
         } catch (HttpClientErrorException.NotFound e) {
             return ResponseEntity.status(404).body("GitHub user not found: " + username);
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
         } catch (RuntimeException e) {
             // Log the exception details
             return ResponseEntity.status(500).body("Error fetching language data from GitHub: " + e.getMessage());
         }
     }
 
+    @GetMapping("/users/{username}/languages/bytes")
+    public ResponseEntity<?> getLanguageBytes(@PathVariable String username) {
+        try {
+            return ResponseEntity.ok(repoLanguageService.getPublicBreakdown(username));
+        } catch (HttpClientErrorException.NotFound e) {
+            return ResponseEntity.status(404).body("GitHub user not found: " + username);
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(500).body("Error fetching language data from GitHub: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/users/{username}/events")
-    public ResponseEntity<?> getPublicEvents(@PathVariable String username) {
+    public ResponseEntity<?> getPublicEvents(@PathVariable String username,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<GitHubEventDTO> events = gitHubService.getPublicEvents(username);
-            return ResponseEntity.ok(events);
+            return CachedResponses.json(gitHubService.getPublicEventsBody(username), acceptEncoding, ifNoneMatch);
         } catch (HttpClientErrorException.NotFound e) {
             return ResponseEntity.status(404).body("GitHub user not found: " + username);
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
         } catch (RuntimeException e) {
             // Log the exception details
             return ResponseEntity.status(500).body("Error fetching event data from GitHub: " + e.getMessage());
         }
     }
 
+    // When, where and what kind of public activity; tz is an IANA zone id or offset, bucket is hour, day or week
+    @GetMapping("/users/{username}/events/insights")
+    public ResponseEntity<?> getEventInsights(@PathVariable String username,
+                                              @RequestParam(defaultValue = "UTC") String tz,
+                                              @RequestParam(defaultValue = "day") String bucket) {
+        ZoneId zone;
+        EventColumns.Bucket timelineBucket;
+        try {
+            zone = ZoneId.of(tz);
+            timelineBucket = EventColumns.Bucket.valueOf(bucket.toUpperCase(Locale.ROOT));
+        } catch (DateTimeException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid tz or bucket: " + e.getMessage());
+        }
+        try {
+            return ResponseEntity.ok(eventInsightsService.getInsights(username, zone, timelineBucket));
+        } catch (HttpClientErrorException.NotFound e) {
+            return ResponseEntity.status(404).body("GitHub user not found: " + username);
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(500).body("Error fetching event data from GitHub: " + e.getMessage());
+        }
+    }
+
+    // Commits from public pushes by local hour / weekday, repository and branch; tz as for insights
+    @GetMapping("/users/{username}/events/commits")
+    public ResponseEntity<?> getCommitInsights(@PathVariable String username,
+                                               @RequestParam(defaultValue = "UTC") String tz) {
+        ZoneId zone;
+        try {
+            zone = ZoneId.of(tz);
+        } catch (DateTimeException e) {
+            return ResponseEntity.badRequest().body("Invalid tz: " + e.getMessage());
+        }
+        try {
+            return ResponseEntity.ok(commitInsightsService.getInsights(username, zone));
+        } catch (HttpClientErrorException.NotFound e) {
+            return ResponseEntity.status(404).body("GitHub user not found: " + username);
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(500).body("Error fetching event data from GitHub: " + e.getMessage());
+        }
+    }
+
+    // Everything the dashboard needs in one call; parts that fail are listed in "errors"
+    @GetMapping("/users/{username}/profile")
+    public ResponseEntity<?> getProfile(@PathVariable String username) {
+        GitHubProfileDTO profile = profileService.getProfile(username);
+        if (profile.getUser() == null && profile.getRepos() == null && profile.getEvents() == null) {
+            return ResponseEntity.status(500).body(profile);
+        }
+        return ResponseEntity.ok(profile);
+    }
+
     @GetMapping("/health-check")
     public ResponseEntity<Map<String, String>> healthCheck() {
         Map<String, String> response = Map.of(
@@ -178,5 +370,20 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Map<String, Object>>> cacheStats() {
+        return ResponseEntity.ok(gitHubService.getCacheStats());
+    }
+
+    @GetMapping("/refresh/stats")
+    public ResponseEntity<Map<String, Object>> refreshStats() {
+        return ResponseEntity.ok(backgroundRefreshScheduler.stats());
+    }
+
+    @GetMapping("/rate-limit/stats")
+    public ResponseEntity<Map<String, Object>> rateLimitStats() {
+        return ResponseEntity.ok(rateLimitScheduler.stats());
+    }
+
     // Add other endpoints as needed
 } 
\ No newline at end of file
@@ -0,0 +1,36 @@
+package org.gitstats.backend.dto;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+import lombok.Data;
+
+@Data
+public class CommitInsightsDTO {
+
+    private String login;
+    private String zone;
+    private int pushes;
+    private long commits;
+    // Commits new to their repository (not re-pushed from another branch)
+    private long distinctCommits;
+    // Pushes GitHub reported no commit count for; each is counted as one commit above
+    private int estimatedPushes;
+    private OffsetDateTime from;
+    private OffsetDateTime to;
+
+    // Commits by local time; [weekday][hour], weekday index 0 = Sunday
+    private int[][] hourByWeekday;
+    private int[] hourTotals;
+    private int[] weekdayTotals;
+    private Integer busiestHour;
+    private String busiestWeekday;
+
+    // Share of commits pushed between 22:00 and 06:00 local time / on Saturday or Sunday
+    private Double nightOwlRatio;
+    private Double weekendRatio;
+
+    // Most commits first
+    private Map<String, Long> repos;
+    private Map<String, Long> branches;
+}
@@ -0,0 +1,14 @@
+package org.gitstats.backend.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class CompareRequestDTO {
+
+    private List<String> usernames;
+
+    // Entries per ranking
+    private int top = 10;
+}
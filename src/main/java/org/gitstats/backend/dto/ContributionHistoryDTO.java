@@ -0,0 +1,17 @@
+package org.gitstats.backend.dto;
+
+import java.util.Map;
+
+import lombok.Data;
+
+@Data
+public class ContributionHistoryDTO {
+
+    private String login;
+
+    // Year -> total contributions in that calendar year
+    private Map<Integer, Integer> yearlyTotals;
+
+    // Streaks, busiest month etc. over the whole history
+    private ContributionStatsDTO stats;
+}
@@ -0,0 +1,32 @@
+package org.gitstats.backend.dto;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import lombok.Data;
+
+@Data
+public class ContributionStatsDTO {
+
+    private String login;
+    private LocalDate from;
+    private LocalDate to;
+
+    // Over the whole from..to window, which can span several years
+    private long totalContributions;
+    // Over the 365 days ending at "to"
+    private long lastYearContributions;
+    private int activeDays;
+    private int longestStreak;
+    private int currentStreak;
+
+    private String busiestMonth;
+    private String busiestWeekday;
+
+    // Index 0 = January / Sunday
+    private long[] monthTotals;
+    private long[] weekdayTotals;
+
+    // Daily contribution count percentiles over days with at least one contribution ("p50", "p90", ...)
+    private Map<String, Integer> percentiles;
+}
@@ -0,0 +1,37 @@
+package org.gitstats.backend.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.Data;
+
+// Typed view of user.contributionsCollection from contributions.graphql
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ContributionsCollectionDTO {
+
+    private ContributionCalendar contributionCalendar;
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ContributionCalendar {
+        private int totalContributions;
+        private List<Week> weeks;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Week {
+        private List<Day> contributionDays;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Day {
+        private int contributionCount;
+        private LocalDate date;
+        private int weekday; // 0 = Sunday
+    }
+}
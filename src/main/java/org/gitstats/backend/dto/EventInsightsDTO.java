@@ -0,0 +1,38 @@
+package org.gitstats.backend.dto;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+
+@Data
+public class EventInsightsDTO {
+
+    private String login;
+    private String zone;
+    private int totalEvents;
+    private OffsetDateTime from;
+    private OffsetDateTime to;
+
+    // [weekday][hour], weekday index 0 = Sunday
+    private int[][] hourByWeekday;
+    private int[] hourTotals;
+    private int[] weekdayTotals;
+    private Integer busiestHour;
+    private String busiestWeekday;
+
+    // Most active first
+    private Map<String, Integer> repos;
+    private Map<String, Integer> types;
+
+    private String bucket;
+    private List<Bucket> timeline;
+
+    @Data
+    public static class Bucket {
+        private LocalDateTime start;
+        private Map<String, Integer> types;
+    }
+}
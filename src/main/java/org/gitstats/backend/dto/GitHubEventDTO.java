@@ -3,6 +3,7 @@ package org.gitstats.backend.dto;
 import java.time.OffsetDateTime;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import lombok.Data;
@@ -19,7 +20,10 @@ public class GitHubEventDTO {
 
     private RepoInfo repo;
     // private ActorInfo actor; // Could add if needed
-    // private PayloadInfo payload; // Could add specific payload details
+
+    // Only PushEvent payloads are kept (GitHubJsonDecoder skips the others)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private PayloadInfo payload;
 
     @Data
     @JsonIgnoreProperties(ignoreUnknown = true)
@@ -29,7 +33,7 @@ public class GitHubEventDTO {
         // private String url;
     }
 
-    // Potential inner classes for Actor and Payload if more detail is needed
+    // Potential inner class for the actor if more detail is needed
     /*
     @Data
     @JsonIgnoreProperties(ignoreUnknown = true)
@@ -41,19 +45,17 @@ public class GitHubEventDTO {
         @JsonProperty("avatar_url")
         private String avatarUrl;
     }
+    */
 
+    // PushEvent payload, reduced to what the commit statistics use. size / distinct_size are
+    // null when GitHub omits them (the decoder counts the commit list instead, if one is sent).
     @Data
     @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class PayloadInfo {
-        // Fields depend heavily on the event type (PushEvent, CreateEvent, etc.)
-        // Example for PushEvent:
-        // private Long push_id;
-        // private Integer size;
-        // private Integer distinct_size;
-        // private String ref;
-        // private String head;
-        // private String before;
-        // private List<CommitInfo> commits;
+        private Integer size; // commits in the push
+        @JsonProperty("distinct_size")
+        private Integer distinctSize; // of those, commits new to the repository
+        private String ref;
     }
-    */
-} 
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package org.gitstats.backend.dto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+
+@Data
+public class GitHubProfileDTO {
+
+    private GitHubUserDTO user;
+    private List<GitHubRepoDTO> repos;
+    private Map<String, Long> languages;
+    private List<GitHubEventDTO> events;
+
+    // Part name -> reason, for parts that failed or timed out (the rest is still returned)
+    private Map<String, String> errors = new LinkedHashMap<>();
+
+    public boolean isComplete() {
+        return errors.isEmpty();
+    }
+}
@@ -2,15 +2,21 @@ package org.gitstats.backend.dto;
 
 import java.time.OffsetDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import lombok.Data;
 
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true) // Ignore fields we don't map
 public class GitHubRepoDTO {
 
     private Long id;
     private String name;
+
+    @JsonProperty("full_name")
+    private String fullName; // owner/name
+
     private String description;
 
     @JsonProperty("html_url")
@@ -27,11 +33,13 @@ public class GitHubRepoDTO {
     @JsonProperty("created_at")
     private OffsetDateTime createdAt;
 
-    // Add other fields if needed, e.g., updated_at, pushed_at
+    // Changes whenever anything is pushed, so it versions per-repo derived data
+    @JsonProperty("pushed_at")
+    private OffsetDateTime pushedAt;
+
+    // Add other fields if needed, e.g., updated_at
     // @JsonProperty("updated_at")
     // private OffsetDateTime updatedAt;
-    // @JsonProperty("pushed_at")
-    // private OffsetDateTime pushedAt;
 
     public String getLanguage() {
         return this.language;
@@ -2,11 +2,13 @@ package org.gitstats.backend.dto;
 
 import java.time.OffsetDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import lombok.Data;
 
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true) // Ignore fields we don't map
 public class GitHubUserDTO {
 
     private String login;
@@ -0,0 +1,22 @@
+package org.gitstats.backend.dto;
+
+import java.util.Map;
+
+import lombok.Data;
+
+@Data
+public class LanguageBreakdownDTO {
+
+    private String login;
+    private long totalBytes;
+
+    // Largest first; shares are percentages of totalBytes
+    private Map<String, Long> bytes;
+    private Map<String, Double> shares;
+
+    private int repositories;
+    // Repositories whose languages had to be requested from GitHub (not unchanged since the last look)
+    private int fetched;
+    // Repositories that could not be read (e.g. blocked or deleted meanwhile); left out of the totals
+    private int failed;
+}
@@ -0,0 +1,27 @@
+package org.gitstats.backend.dto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+public class LeaderboardDTO {
+
+    private int users;
+    private int failed;
+
+    // Metric ("stars", "forks", "activity", "followers", "languages") -> best first
+    private Map<String, List<RankEntry>> rankings = new LinkedHashMap<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RankEntry {
+        private String name;
+        private long value;
+    }
+}
@@ -0,0 +1,22 @@
+package org.gitstats.backend.dto;
+
+import lombok.Data;
+
+// One row of the friends comparison table
+@Data
+public class UserSummaryDTO {
+
+    private String login;
+    private String avatarUrl;
+    private int followers;
+    private int publicRepos;
+    private long stars;
+    private long forks;
+    private String topLanguage;
+
+    // Public events in the last 90 days
+    private int recentEvents;
+
+    // Set instead of the stats when this user could not be fetched
+    private String error;
+}
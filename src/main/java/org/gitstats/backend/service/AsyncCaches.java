@@ -0,0 +1,71 @@
+package org.gitstats.backend.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+/**
+ * Cache-miss loading without holding a map lock. A synchronous Caffeine cache runs
+ * the loader inside ConcurrentHashMap.compute, so a GitHub call keeps its hash bin
+ * locked and, on a virtual thread, pins the carrier for the whole round trip.
+ * Here the miss only installs an empty future; the caller that installed it runs
+ * the loader afterwards, on its own thread (and at its own priority), and
+ * concurrent callers for the same key wait on that future. A background load
+ * that is shed is not passed on to interactive waiters; they load it again.
+ */
+final class AsyncCaches {
+
+    private AsyncCaches() {
+    }
+
+    static <K, V> V get(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        while (true) {
+            CompletableFuture<V> loading = new CompletableFuture<>();
+            CompletableFuture<V> value = cache.get(key, (k, executor) -> loading);
+            if (value == loading) {
+                try {
+                    loading.complete(loader.apply(key));
+                } catch (RuntimeException | Error e) {
+                    // Caffeine drops the entry once its future fails
+                    loading.completeExceptionally(e);
+                    throw e;
+                }
+            }
+            try {
+                return join(value);
+            } catch (RateLimitExceededException e) {
+                if (!retryAsLeader(e)) {
+                    throw e;
+                }
+                // Not waiting for Caffeine to drop the failed future; the next round loads at our priority
+                cache.asMap().remove(key, value);
+            }
+        }
+    }
+
+    /**
+     * Whether a waiter that shared a failed load should run it again itself: the
+     * load was shed for its background priority (a refresh, a warm, a bulk
+     * comparison), while this caller is interactive and would have been paced.
+     */
+    static boolean retryAsLeader(RateLimitExceededException e) {
+        return e.isShed() && RequestPriority.current() == RequestPriority.INTERACTIVE;
+    }
+
+    // Rethrows a failed load as the original exception, so callers still see NotFound / RateLimitExceeded
+    static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.gitstats.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the most requested (and explicitly pinned) public profiles warm so
+ * interactive requests find fresh data. Each refresh period the hot set is
+ * walked in small slices on every tick instead of all at once, and a tick is
+ * skipped entirely while the unauthenticated budget has no spare room.
+ * Refreshes go through the caches' background reload, which runs at
+ * {@link RequestPriority#BACKGROUND} and is shed before interactive calls.
+ */
+@Component
+public class BackgroundRefreshScheduler {
+
+    private static final String PUBLIC_POOL = TokenFingerprint.ANONYMOUS + ":core";
+
+    private final GitHubService gitHubService;
+    private final ProfileRequestTracker tracker;
+    private final RateLimitScheduler rateLimitScheduler;
+    private final boolean enabled;
+    private final int hotSetSize;
+    private final List<String> pinned;
+    private final long ticksPerPeriod;
+
+    // Only touched from the scheduler thread
+    private final ArrayDeque<String> round = new ArrayDeque<>();
+    private int perTick = 1;
+
+    private final AtomicLong refreshed = new AtomicLong();
+    private final AtomicLong skippedTicks = new AtomicLong();
+
+    public BackgroundRefreshScheduler(
+        GitHubService gitHubService,
+        ProfileRequestTracker tracker,
+        RateLimitScheduler rateLimitScheduler,
+        @Value("${github.refresh.enabled:true}") boolean enabled,
+        @Value("${github.refresh.hot-set-size:200}") int hotSetSize,
+        @Value("${github.refresh.pinned:}") List<String> pinned,
+        @Value("${github.refresh.period:5m}") Duration period,
+        @Value("${github.refresh.tick:10s}") Duration tick
+    ) {
+        this.gitHubService = gitHubService;
+        this.tracker = tracker;
+        this.rateLimitScheduler = rateLimitScheduler;
+        this.enabled = enabled;
+        this.hotSetSize = hotSetSize;
+        this.pinned = pinned;
+        this.ticksPerPeriod = Math.max(1, period.toMillis() / Math.max(1, tick.toMillis()));
+    }
+
+    @Scheduled(fixedDelayString = "${github.refresh.tick:10s}", initialDelayString = "${github.refresh.tick:10s}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        if (round.isEmpty()) {
+            startRound();
+        }
+        for (int i = 0; i < perTick && !round.isEmpty(); i++) {
+            if (!rateLimitScheduler.hasSpareBudget(PUBLIC_POOL)) {
+                skippedTicks.incrementAndGet();
+                return;
+            }
+            gitHubService.refreshPublicProfile(round.poll());
+            refreshed.incrementAndGet();
+        }
+    }
+
+    // A new pass over the hot set, spread evenly over the ticks of one period
+    private void startRound() {
+        Set<String> hot = new LinkedHashSet<>();
+        for (String username : pinned) {
+            if (!username.isBlank()) {
+                hot.add(username.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        hot.addAll(tracker.hottest(hotSetSize));
+        round.addAll(hot);
+        perTick = (int) Math.max(1, (hot.size() + ticksPerPeriod - 1) / ticksPerPeriod);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("tracked", tracker.size());
+        result.put("pendingInRound", round.size());
+        result.put("perTick", perTick);
+        result.put("refreshed", refreshed.get());
+        result.put("skippedTicks", skippedTicks.get());
+        return result;
+    }
+}
@@ -0,0 +1,300 @@
+package org.gitstats.backend.service;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.TextStyle;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.gitstats.backend.dto.CommitInsightsDTO;
+
+/**
+ * Per-user index of pushes mined from PushEvent payloads: one row per push
+ * (time, commits, distinct commits, repository and branch as dictionary
+ * indices) in primitive columns, plus running per-repository and per-branch
+ * commit totals.
+ *
+ * Events are merged incrementally: only events with an id above the highest
+ * one already merged are read, so each refresh of the event list costs only
+ * its new pushes, and pushes that have scrolled out of GitHub's 300-event
+ * window stay in the index (up to maxPushes, oldest dropped first). Time
+ * histograms depend on the caller's zone and are computed from the columns on
+ * request.
+ *
+ * GitHub does not always report a push's commit count; such a push counts as
+ * one commit (a push carries at least one) and is flagged as estimated.
+ *
+ * Instances are safe for concurrent use.
+ */
+public class CommitIndex {
+
+    // Local hours counted as night-owl activity: [22:00, 06:00)
+    static final int NIGHT_FROM = 22;
+    static final int NIGHT_UNTIL = 6;
+
+    private static final int SECONDS_PER_DAY = 86_400;
+    // 1970-01-01 was a Thursday (index 4 when Sunday = 0)
+    private static final int EPOCH_WEEKDAY = 4;
+
+    private final int maxPushes;
+
+    private long watermark = -1;
+    private int size;
+    private long[] pushedAt = new long[0];
+    private int[] commits = new int[0];
+    private int[] distinct = new int[0];
+    private boolean[] estimated = new boolean[0];
+    private int[] repos = new int[0];
+    private int[] refs = new int[0];
+
+    private final Dictionary repoNames = new Dictionary();
+    private final Dictionary refNames = new Dictionary();
+    private long[] commitsPerRepo = new long[0];
+    private long[] commitsPerRef = new long[0];
+    private long totalCommits;
+    private long totalDistinct;
+    private int estimatedPushes;
+
+    public CommitIndex(int maxPushes) {
+        this.maxPushes = Math.max(1, maxPushes);
+    }
+
+    /**
+     * Adds the pushes among {@code events} newer than anything merged so far.
+     *
+     * @return the number of pushes added
+     */
+    public int merge(EventColumns events) {
+        long after;
+        synchronized (this) {
+            after = watermark;
+        }
+        // Scanning needs no lock; it only reads the immutable columns
+        List<Push> found = scan(events, after);
+        if (found.isEmpty()) {
+            return 0;
+        }
+        found.sort((a, b) -> Long.compare(a.eventId(), b.eventId()));
+        synchronized (this) {
+            int added = 0;
+            for (Push push : found) {
+                // Another merge may have taken these in the meantime
+                if (push.eventId() > watermark) {
+                    append(push);
+                    watermark = push.eventId();
+                    added++;
+                }
+            }
+            if (size > maxPushes) {
+                dropOldest(size - maxPushes);
+            }
+            return added;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized CommitInsightsDTO snapshot(String login, ZoneId zone, int maxEntries) {
+        ZoneRules rules = zone.getRules();
+        int[][] hourByWeekday = new int[7][24];
+        int[] hourTotals = new int[24];
+        int[] weekdayTotals = new int[7];
+        long night = 0;
+        long weekend = 0;
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            long local = EventColumns.localSeconds(pushedAt[i], rules);
+            int weekday = (int) Math.floorMod(Math.floorDiv(local, SECONDS_PER_DAY) + EPOCH_WEEKDAY, 7);
+            int hour = (int) (Math.floorMod(local, SECONDS_PER_DAY) / 3_600);
+            hourByWeekday[weekday][hour] += commits[i];
+            hourTotals[hour] += commits[i];
+            weekdayTotals[weekday] += commits[i];
+            if (hour >= NIGHT_FROM || hour < NIGHT_UNTIL) {
+                night += commits[i];
+            }
+            if (weekday == 0 || weekday == 6) {
+                weekend += commits[i];
+            }
+            first = Math.min(first, pushedAt[i]);
+            last = Math.max(last, pushedAt[i]);
+        }
+
+        CommitInsightsDTO insights = new CommitInsightsDTO();
+        insights.setLogin(login);
+        insights.setZone(zone.getId());
+        insights.setPushes(size);
+        insights.setCommits(totalCommits);
+        insights.setDistinctCommits(totalDistinct);
+        insights.setEstimatedPushes(estimatedPushes);
+        if (size > 0) {
+            insights.setFrom(OffsetDateTime.ofInstant(Instant.ofEpochSecond(first), zone));
+            insights.setTo(OffsetDateTime.ofInstant(Instant.ofEpochSecond(last), zone));
+        }
+        insights.setHourByWeekday(hourByWeekday);
+        insights.setHourTotals(hourTotals);
+        insights.setWeekdayTotals(weekdayTotals);
+        if (totalCommits > 0) {
+            int busiestHour = argMax(hourTotals);
+            int busiestWeekday = argMax(weekdayTotals);
+            insights.setBusiestHour(busiestHour);
+            // DayOfWeek is Monday-based, the histogram is Sunday-based
+            insights.setBusiestWeekday(DayOfWeek.SUNDAY.plus(busiestWeekday).getDisplayName(TextStyle.FULL, Locale.ENGLISH));
+            insights.setNightOwlRatio(ratio(night, totalCommits));
+            insights.setWeekendRatio(ratio(weekend, totalCommits));
+        }
+        insights.setRepos(top(repoNames, commitsPerRepo, maxEntries));
+        insights.setBranches(top(refNames, commitsPerRef, maxEntries));
+        return insights;
+    }
+
+    private void append(Push push) {
+        if (size == pushedAt.length) {
+            int grown = Math.max(64, size * 2);
+            pushedAt = Arrays.copyOf(pushedAt, grown);
+            commits = Arrays.copyOf(commits, grown);
+            distinct = Arrays.copyOf(distinct, grown);
+            estimated = Arrays.copyOf(estimated, grown);
+            repos = Arrays.copyOf(repos, grown);
+            refs = Arrays.copyOf(refs, grown);
+        }
+        int repo = repoNames.indexOf(push.repo());
+        int ref = refNames.indexOf(push.ref());
+        commitsPerRepo = ensure(commitsPerRepo, repo);
+        commitsPerRef = ensure(commitsPerRef, ref);
+
+        pushedAt[size] = push.pushedAt();
+        commits[size] = push.commits();
+        distinct[size] = push.distinct();
+        estimated[size] = push.estimated();
+        repos[size] = repo;
+        refs[size] = ref;
+        size++;
+        commitsPerRepo[repo] += push.commits();
+        commitsPerRef[ref] += push.commits();
+        totalCommits += push.commits();
+        totalDistinct += push.distinct();
+        if (push.estimated()) {
+            estimatedPushes++;
+        }
+    }
+
+    // Rows are in event id order, so the oldest pushes are at the front
+    private void dropOldest(int count) {
+        for (int i = 0; i < count; i++) {
+            commitsPerRepo[repos[i]] -= commits[i];
+            commitsPerRef[refs[i]] -= commits[i];
+            totalCommits -= commits[i];
+            totalDistinct -= distinct[i];
+            if (estimated[i]) {
+                estimatedPushes--;
+            }
+        }
+        int remaining = size - count;
+        System.arraycopy(pushedAt, count, pushedAt, 0, remaining);
+        System.arraycopy(commits, count, commits, 0, remaining);
+        System.arraycopy(distinct, count, distinct, 0, remaining);
+        System.arraycopy(estimated, count, estimated, 0, remaining);
+        System.arraycopy(repos, count, repos, 0, remaining);
+        System.arraycopy(refs, count, refs, 0, remaining);
+        size = remaining;
+    }
+
+    private static long[] ensure(long[] values, int index) {
+        return index < values.length ? values : Arrays.copyOf(values, Math.max(16, index * 2));
+    }
+
+    private static Map<String, Long> top(Dictionary names, long[] counts, int limit) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            if (counts[i] > 0) {
+                order.add(i);
+            }
+        }
+        order.sort((a, b) -> Long.compare(counts[b], counts[a]));
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(limit, order.size()); i++) {
+            result.put(names.name(order.get(i)), counts[order.get(i)]);
+        }
+        return result;
+    }
+
+    private static int argMax(int[] values) {
+        int best = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static double ratio(long part, long total) {
+        return Math.round(part * 1000.0 / total) / 1000.0;
+    }
+
+    // Pushes among events with an event id above after. At most 300 events per refresh, so one pass suffices.
+    static List<Push> scan(EventColumns events, long after) {
+        List<Push> pushes = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            long id = events.id(i);
+            Long createdAt = events.createdAt(i);
+            // Events without a numeric id cannot be ordered against the watermark
+            if (events.type(i) != EventType.PUSH || id <= after || createdAt == null) {
+                continue;
+            }
+            int size = events.pushSize(i);
+            boolean estimated = size == EventColumns.NOT_REPORTED;
+            int commits = estimated ? 1 : size;
+            int distinctSize = events.pushDistinctSize(i);
+            int distinct = distinctSize != EventColumns.NOT_REPORTED ? Math.min(distinctSize, commits) : commits;
+            int repo = events.repo(i);
+            pushes.add(new Push(id, createdAt, commits, distinct, estimated,
+                    repo >= 0 ? events.repoName(repo) : "unknown", branch(events.pushRef(i))));
+        }
+        return pushes;
+    }
+
+    // "refs/heads/main" -> "main"; tags and other refs keep their full name
+    static String branch(String ref) {
+        if (ref == null) {
+            return "unknown";
+        }
+        return ref.startsWith("refs/heads/") ? ref.substring("refs/heads/".length()) : ref;
+    }
+
+    record Push(long eventId, long pushedAt, int commits, int distinct, boolean estimated, String repo, String ref) {
+    }
+
+    // Not thread-safe; guarded by the index
+    private static final class Dictionary {
+
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+
+        int indexOf(String name) {
+            return indices.computeIfAbsent(name, key -> {
+                names.add(key);
+                return names.size() - 1;
+            });
+        }
+
+        String name(int index) {
+            return names.get(index);
+        }
+
+        int size() {
+            return names.size();
+        }
+    }
+}
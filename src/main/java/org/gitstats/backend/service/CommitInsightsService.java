@@ -0,0 +1,49 @@
+package org.gitstats.backend.service;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.Locale;
+
+import org.gitstats.backend.dto.CommitInsightsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Commit activity (when, where, on which branches) mined from the pushes in a
+ * user's public events. Keeps one {@link CommitIndex} per login; each read
+ * merges only the pushes that arrived since the previous one.
+ */
+@Service
+public class CommitInsightsService {
+
+    private final GitHubService gitHubService;
+    private final Cache<String, CommitIndex> indexes;
+    private final int maxPushes;
+    private final int maxEntries;
+
+    public CommitInsightsService(
+        GitHubService gitHubService,
+        @Value("${github.commits.idle-expiry:6h}") Duration idleExpiry,
+        @Value("${github.commits.max-users:10000}") long maxUsers,
+        @Value("${github.commits.max-pushes:20000}") int maxPushes,
+        @Value("${github.events.insights-max-repos:20}") int maxEntries
+    ) {
+        this.gitHubService = gitHubService;
+        this.indexes = Caffeine.newBuilder()
+                .expireAfterAccess(idleExpiry)
+                .maximumSize(maxUsers)
+                .build();
+        this.maxPushes = maxPushes;
+        this.maxEntries = maxEntries;
+    }
+
+    public CommitInsightsDTO getInsights(String username, ZoneId zone) {
+        EventColumns events = gitHubService.getPublicEventColumns(username);
+        CommitIndex index = indexes.get(username.toLowerCase(Locale.ROOT), key -> new CommitIndex(maxPushes));
+        index.merge(events);
+        return index.snapshot(username, zone, maxEntries);
+    }
+}
@@ -0,0 +1,101 @@
+package org.gitstats.backend.service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Remembers the ETag / Last-Modified validators GitHub sent for a URL together
+ * with the already decoded body, so a revalidation answered with 304 can reuse
+ * the DTOs without reading or deserializing anything.
+ *
+ * Bounded by weight like the response caches (one unit per list element), as
+ * a body is kept for every page. Bodies share their objects with the values
+ * the response caches were loaded from rather than copying them.
+ */
+@Component
+public class ConditionalRequestCache {
+
+    private final Cache<String, Validated<?>> entries;
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder modified = new LongAdder();
+
+    public ConditionalRequestCache(@Value("${github.conditional.max-weight:200000}") long maxWeight) {
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((String key, Validated<?> response) -> response.weight())
+                .recordStats()
+                .build();
+    }
+
+    // Responses differ per token, so the token identity is part of the key
+    public static String key(String url, String token) {
+        return TokenFingerprint.of(token) + " " + url;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Validated<T> get(String key) {
+        return (Validated<T>) entries.getIfPresent(key);
+    }
+
+    public <T> void put(String key, Validated<T> response) {
+        if (!response.hasValidators()) {
+            entries.invalidate(key);
+            return;
+        }
+        entries.put(key, response);
+    }
+
+    public long getNotModified() {
+        return notModified.sum();
+    }
+
+    public long getModified() {
+        return modified.sum();
+    }
+
+    public void recordNotModified() {
+        notModified.increment();
+    }
+
+    public void recordModified() {
+        modified.increment();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", entries.estimatedSize());
+        result.put("evictions", entries.stats().evictionCount());
+        result.put("notModified", notModified.sum());
+        result.put("modified", modified.sum());
+        return result;
+    }
+
+    // The Link header is kept as well, GitHub does not always repeat it on a 304
+    public record Validated<T>(String etag, String lastModified, String link, T body) {
+
+        public boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+
+        int weight() {
+            if (body instanceof Collection<?> items) {
+                return 1 + items.size();
+            }
+            if (body instanceof Map<?, ?> map) {
+                return 1 + map.size();
+            }
+            if (body instanceof EventColumns events) {
+                return 1 + events.size();
+            }
+            return 1;
+        }
+    }
+}
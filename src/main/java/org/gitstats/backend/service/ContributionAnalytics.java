@@ -0,0 +1,238 @@
+package org.gitstats.backend.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.gitstats.backend.dto.ContributionStatsDTO;
+
+/**
+ * Day-indexed contribution calendar for one user with running statistics.
+ *
+ * Counts live in a primitive int[] indexed by days since the first known day.
+ * Totals, month/weekday sums and the count histogram (for percentiles) are kept
+ * up to date by applying per-day deltas; streaks are kept as two prefix arrays
+ * (run ending at day i, longest run up to day i), so merging a refreshed window
+ * only revisits the days from the first changed one onwards. Nothing is
+ * allocated on that path unless the calendar or histogram has to grow.
+ *
+ * Days before the merged window are kept, so the calendar accumulates history.
+ * Instances are safe for concurrent use.
+ */
+public class ContributionAnalytics {
+
+    private static final int[] PERCENTILES = {50, 75, 90, 99};
+
+    private int startEpochDay;
+    private int length;
+    private int[] counts = new int[0];
+    private byte[] months = new byte[0];     // 0 = January
+    private byte[] weekdays = new byte[0];   // 0 = Sunday, as in the GraphQL calendar
+    private int[] runEndingAt = new int[0];
+    private int[] longestUpTo = new int[0];
+
+    private final long[] monthTotals = new long[12];
+    private final long[] weekdayTotals = new long[7];
+    private long total;
+    private int activeDays;
+    private int[] histogram = new int[64];   // histogram[c] = days with exactly c contributions, c > 0
+
+    /**
+     * Merges a window of daily counts starting at {@code firstEpochDay}.
+     *
+     * @return the number of days whose count changed
+     */
+    public synchronized int merge(int firstEpochDay, int[] dayCounts) {
+        if (dayCounts.length == 0) {
+            return 0;
+        }
+        if (length == 0 || firstEpochDay < startEpochDay) {
+            rebase(firstEpochDay);
+        }
+        int offset = firstEpochDay - startEpochDay;
+        ensureLength(offset + dayCounts.length);
+
+        int firstChanged = -1;
+        int changed = 0;
+        for (int i = 0; i < dayCounts.length; i++) {
+            int index = offset + i;
+            int value = Math.max(0, dayCounts[i]);
+            if (counts[index] != value) {
+                apply(index, counts[index], value);
+                if (firstChanged < 0) {
+                    firstChanged = index;
+                }
+                changed++;
+            }
+        }
+        if (firstChanged >= 0) {
+            recomputeStreaks(firstChanged);
+        }
+        return changed;
+    }
+
+    public synchronized ContributionStatsDTO snapshot(String login) {
+        ContributionStatsDTO stats = new ContributionStatsDTO();
+        stats.setLogin(login);
+        if (length == 0) {
+            stats.setMonthTotals(new long[12]);
+            stats.setWeekdayTotals(new long[7]);
+            stats.setPercentiles(Map.of());
+            return stats;
+        }
+        stats.setFrom(LocalDate.ofEpochDay(startEpochDay));
+        stats.setTo(LocalDate.ofEpochDay(startEpochDay + length - 1L));
+        stats.setTotalContributions(total);
+        stats.setLastYearContributions(sumOfLastDays(365));
+        stats.setActiveDays(activeDays);
+        stats.setLongestStreak(longestUpTo[length - 1]);
+        // Like GitHub, an empty "today" does not break the current streak yet
+        int current = runEndingAt[length - 1];
+        if (current == 0 && length > 1) {
+            current = runEndingAt[length - 2];
+        }
+        stats.setCurrentStreak(current);
+        stats.setBusiestMonth(Month.of(argMax(monthTotals) + 1).getDisplayName(TextStyle.FULL, Locale.ENGLISH));
+        // DayOfWeek is Monday-based, the calendar is Sunday-based
+        stats.setBusiestWeekday(DayOfWeek.SUNDAY.plus(argMax(weekdayTotals)).getDisplayName(TextStyle.FULL, Locale.ENGLISH));
+        stats.setMonthTotals(monthTotals.clone());
+        stats.setWeekdayTotals(weekdayTotals.clone());
+        stats.setPercentiles(percentiles());
+        return stats;
+    }
+
+    public synchronized int getLength() {
+        return length;
+    }
+
+    public synchronized int getStartEpochDay() {
+        return startEpochDay;
+    }
+
+    public synchronized int[] copyCounts() {
+        return Arrays.copyOf(counts, length);
+    }
+
+    // The window may span several years (history); "last year" is the trailing 365 days
+    private long sumOfLastDays(int days) {
+        long sum = 0;
+        for (int i = Math.max(0, length - days); i < length; i++) {
+            sum += counts[i];
+        }
+        return sum;
+    }
+
+    private void apply(int index, int oldValue, int newValue) {
+        long delta = (long) newValue - oldValue;
+        total += delta;
+        monthTotals[months[index]] += delta;
+        weekdayTotals[weekdays[index]] += delta;
+        if (oldValue > 0) {
+            histogram[oldValue]--;
+            activeDays--;
+        }
+        if (newValue > 0) {
+            if (newValue >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, Math.max(histogram.length * 2, newValue + 1));
+            }
+            histogram[newValue]++;
+            activeDays++;
+        }
+        counts[index] = newValue;
+    }
+
+    private void recomputeStreaks(int from) {
+        int run = from > 0 ? runEndingAt[from - 1] : 0;
+        int longest = from > 0 ? longestUpTo[from - 1] : 0;
+        for (int i = from; i < length; i++) {
+            run = counts[i] > 0 ? run + 1 : 0;
+            longest = Math.max(longest, run);
+            runEndingAt[i] = run;
+            longestUpTo[i] = longest;
+        }
+    }
+
+    private Map<String, Integer> percentiles() {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        int p = 0;
+        int seen = 0;
+        for (int count = 1; count < histogram.length && p < PERCENTILES.length; count++) {
+            seen += histogram[count];
+            while (p < PERCENTILES.length && seen > 0
+                    && seen * 100L >= (long) PERCENTILES[p] * activeDays) {
+                result.put("p" + PERCENTILES[p], count);
+                p++;
+            }
+        }
+        return result;
+    }
+
+    // Moves the calendar start back to firstEpochDay, keeping existing days
+    private void rebase(int firstEpochDay) {
+        if (length == 0) {
+            startEpochDay = firstEpochDay;
+            return;
+        }
+        int shift = startEpochDay - firstEpochDay;
+        int[] oldCounts = Arrays.copyOf(counts, length);
+        int oldLength = length;
+        clear();
+        startEpochDay = firstEpochDay;
+        ensureLength(shift + oldLength);
+        for (int i = 0; i < oldLength; i++) {
+            if (oldCounts[i] != 0) {
+                apply(shift + i, 0, oldCounts[i]);
+            }
+        }
+        recomputeStreaks(0);
+    }
+
+    private void clear() {
+        length = 0;
+        Arrays.fill(monthTotals, 0);
+        Arrays.fill(weekdayTotals, 0);
+        Arrays.fill(histogram, 0);
+        total = 0;
+        activeDays = 0;
+    }
+
+    private void ensureLength(int newLength) {
+        if (newLength <= length) {
+            return;
+        }
+        if (newLength > counts.length) {
+            int capacity = Math.max(newLength, counts.length * 2);
+            counts = Arrays.copyOf(counts, capacity);
+            months = Arrays.copyOf(months, capacity);
+            weekdays = Arrays.copyOf(weekdays, capacity);
+            runEndingAt = Arrays.copyOf(runEndingAt, capacity);
+            longestUpTo = Arrays.copyOf(longestUpTo, capacity);
+        }
+        LocalDate date = LocalDate.ofEpochDay((long) startEpochDay + length);
+        for (int i = length; i < newLength; i++) {
+            counts[i] = 0;
+            months[i] = (byte) (date.getMonthValue() - 1);
+            weekdays[i] = (byte) (date.getDayOfWeek().getValue() % 7);
+            date = date.plusDays(1);
+        }
+        int oldLength = length;
+        length = newLength;
+        // New days are empty: they end any running streak
+        recomputeStreaks(oldLength);
+    }
+
+    private static int argMax(long[] values) {
+        int best = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
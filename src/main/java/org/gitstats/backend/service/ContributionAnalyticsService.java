@@ -0,0 +1,122 @@
+package org.gitstats.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Locale;
+
+import org.gitstats.backend.dto.ContributionStatsDTO;
+import org.gitstats.backend.dto.ContributionsCollectionDTO;
+import org.gitstats.backend.dto.GitHubUserDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Server-side contribution statistics (streaks, month/weekday totals, percentiles).
+ * Keeps one {@link ContributionAnalytics} per login; each fetch of the contribution
+ * calendar is merged into it so only the days that changed are reprocessed.
+ * Calendars are fetched with the login's own token and may include private
+ * contributions, so they are only served back to that token.
+ */
+@Service
+public class ContributionAnalyticsService {
+
+    private final GitHubService gitHubService;
+    private final SnapshotStore snapshotStore;
+    private final Cache<String, ContributionAnalytics> calendars;
+
+    public ContributionAnalyticsService(
+        GitHubService gitHubService,
+        SnapshotStore snapshotStore,
+        @Value("${github.contributions.idle-expiry:6h}") Duration idleExpiry,
+        @Value("${github.contributions.max-users:10000}") long maxUsers
+    ) {
+        this.gitHubService = gitHubService;
+        this.snapshotStore = snapshotStore;
+        this.calendars = Caffeine.newBuilder()
+                .expireAfterAccess(idleExpiry)
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    public ContributionStatsDTO getStats(String token) {
+        String login = gitHubService.getAuthenticatedLogin(token);
+        LocalDate firstDay = firstDay(gitHubService.getAuthenticatedUserInfo(token));
+        ContributionsCollectionDTO collection = gitHubService.getContributionCollection(token);
+        ContributionAnalytics analytics = calendarFor(login);
+        if (merge(analytics, collection, firstDay) > 0) {
+            persist(login, analytics);
+        }
+        return analytics.snapshot(login);
+    }
+
+    public void persist(String login, ContributionAnalytics analytics) {
+        snapshotStore.putCalendar(login, analytics.getStartEpochDay(), analytics.copyCounts());
+    }
+
+    // Restores a calendar saved before a restart
+    public void warm(String login, int startEpochDay, int[] counts) {
+        calendarFor(login).merge(startEpochDay, counts);
+    }
+
+    // The shared calendar of a login; only merge what the login's own token fetched
+    public ContributionAnalytics calendarFor(String login) {
+        return calendars.get(login.toLowerCase(Locale.ROOT), key -> new ContributionAnalytics());
+    }
+
+    // First calendar day that can hold contributions: the account's creation date, less a day because
+    // calendar dates are in the user's time zone and may trail UTC (null when unknown)
+    static LocalDate firstDay(GitHubUserDTO user) {
+        if (user == null || user.getCreatedAt() == null) {
+            return null;
+        }
+        return user.getCreatedAt().withOffsetSameInstant(ZoneOffset.UTC).toLocalDate().minusDays(1);
+    }
+
+    static int merge(ContributionAnalytics analytics, ContributionsCollectionDTO collection) {
+        return merge(analytics, collection, null);
+    }
+
+    // Flattens the week/day structure of the GraphQL result into one day-indexed window. Days before
+    // firstDay are left out: GitHub pads a window with empty days before the account existed, and
+    // merging those would move the start of the shared calendar back for nothing.
+    static int merge(ContributionAnalytics analytics, ContributionsCollectionDTO collection, LocalDate firstDay) {
+        if (collection == null || collection.getContributionCalendar() == null
+                || collection.getContributionCalendar().getWeeks() == null) {
+            return 0;
+        }
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (ContributionsCollectionDTO.Week week : collection.getContributionCalendar().getWeeks()) {
+            if (week.getContributionDays() == null) {
+                continue;
+            }
+            for (ContributionsCollectionDTO.Day day : week.getContributionDays()) {
+                if (day.getDate() != null && (firstDay == null || !day.getDate().isBefore(firstDay))) {
+                    long epochDay = day.getDate().toEpochDay();
+                    first = Math.min(first, epochDay);
+                    last = Math.max(last, epochDay);
+                }
+            }
+        }
+        if (first > last) {
+            return 0;
+        }
+        int[] counts = new int[(int) (last - first + 1)];
+        for (ContributionsCollectionDTO.Week week : collection.getContributionCalendar().getWeeks()) {
+            if (week.getContributionDays() == null) {
+                continue;
+            }
+            for (ContributionsCollectionDTO.Day day : week.getContributionDays()) {
+                LocalDate date = day.getDate();
+                if (date != null && (firstDay == null || !date.isBefore(firstDay))) {
+                    counts[(int) (date.toEpochDay() - first)] = day.getContributionCount();
+                }
+            }
+        }
+        return analytics.merge((int) first, counts);
+    }
+}
@@ -0,0 +1,202 @@
+package org.gitstats.backend.service;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.gitstats.backend.dto.ContributionHistoryDTO;
+import org.gitstats.backend.dto.ContributionsCollectionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.graphql.client.ClientGraphQlResponse;
+import org.springframework.graphql.client.HttpGraphQlClient;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Contribution history across several years and/or users. GitHub limits one
+ * contributionsCollection to a year, so every (login, year) window becomes an
+ * aliased field and as many windows as the node budget allows are sent in one
+ * GraphQL document. Finished years never change and are cached for good; only
+ * the current year is fetched again.
+ *
+ * What GitHub returns depends on the viewer (the token's owner sees their own
+ * private contributions), so finished years are cached per token identity and
+ * only the owner's own results are merged into the shared per-login calendar.
+ */
+@Service
+public class ContributionHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContributionHistoryService.class);
+
+    // contributionCalendar + up to 53 weeks of 7 days, as GitHub counts nodes
+    private static final int NODES_PER_WINDOW = 2 + 53 + 53 * 7;
+
+    private static final String CALENDAR_FRAGMENT = """
+            fragment Calendar on ContributionsCollection {
+              contributionCalendar {
+                totalContributions
+                weeks {
+                  contributionDays {
+                    contributionCount
+                    date
+                    weekday
+                  }
+                }
+              }
+            }
+            """;
+
+    private final HttpGraphQlClient graphQlClient;
+    private final GitHubService gitHubService;
+    private final ContributionAnalyticsService analyticsService;
+    private final int windowsPerQuery;
+    private final Cache<String, ContributionsCollectionDTO> finishedYears;
+
+    public ContributionHistoryService(
+        HttpGraphQlClient graphQlClient,
+        GitHubService gitHubService,
+        ContributionAnalyticsService analyticsService,
+        @Value("${github.graphql.max-nodes-per-query:10000}") int maxNodesPerQuery,
+        @Value("${github.contributions.max-cached-years:50000}") long maxCachedYears
+    ) {
+        this.graphQlClient = graphQlClient;
+        this.gitHubService = gitHubService;
+        this.analyticsService = analyticsService;
+        this.windowsPerQuery = Math.max(1, maxNodesPerQuery / NODES_PER_WINDOW);
+        this.finishedYears = Caffeine.newBuilder()
+                .maximumSize(maxCachedYears)
+                .build();
+    }
+
+    // viewer is the fingerprint of the token the window is fetched with
+    private record Window(String viewer, String login, int year) {
+
+        String key() {
+            return viewer + " " + login.toLowerCase(Locale.ROOT) + ":" + year;
+        }
+    }
+
+    public List<ContributionHistoryDTO> getHistory(String token, List<String> logins, int years) {
+        int currentYear = Year.now(ZoneOffset.UTC).getValue();
+        int firstYear = currentYear - Math.max(1, years) + 1;
+        String viewer = TokenFingerprint.of(token);
+        String owner = gitHubService.getAuthenticatedLogin(token);
+        LocalDate ownerFirstDay = ContributionAnalyticsService.firstDay(gitHubService.getAuthenticatedUserInfo(token));
+
+        Map<String, ContributionsCollectionDTO> collections = new HashMap<>();
+        List<Window> missing = new ArrayList<>();
+        for (String login : logins) {
+            for (int year = firstYear; year <= currentYear; year++) {
+                Window window = new Window(viewer, login, year);
+                ContributionsCollectionDTO cached = year < currentYear ? finishedYears.getIfPresent(window.key()) : null;
+                if (cached != null) {
+                    collections.put(window.key(), cached);
+                } else {
+                    missing.add(window);
+                }
+            }
+        }
+        for (int start = 0; start < missing.size(); start += windowsPerQuery) {
+            List<Window> batch = missing.subList(start, Math.min(missing.size(), start + windowsPerQuery));
+            fetchBatch(token, batch, currentYear, collections);
+        }
+
+        List<ContributionHistoryDTO> history = new ArrayList<>(logins.size());
+        for (String login : logins) {
+            // Other users' calendars as seen by this token stay with this response
+            boolean own = login.equalsIgnoreCase(owner);
+            ContributionAnalytics analytics = own ? analyticsService.calendarFor(login) : new ContributionAnalytics();
+            // Years before the account existed would only back-extend the shared calendar with empty days
+            LocalDate firstDay = own ? ownerFirstDay : null;
+            Map<Integer, Integer> yearlyTotals = new LinkedHashMap<>();
+            int changed = 0;
+            for (int year = firstYear; year <= currentYear; year++) {
+                ContributionsCollectionDTO collection = collections.get(new Window(viewer, login, year).key());
+                changed += ContributionAnalyticsService.merge(analytics, collection, firstDay);
+                yearlyTotals.put(year, collection != null && collection.getContributionCalendar() != null
+                        ? collection.getContributionCalendar().getTotalContributions() : 0);
+            }
+            if (own && changed > 0) {
+                analyticsService.persist(login, analytics);
+            }
+            ContributionHistoryDTO dto = new ContributionHistoryDTO();
+            dto.setLogin(login);
+            dto.setYearlyTotals(yearlyTotals);
+            dto.setStats(analytics.snapshot(login));
+            history.add(dto);
+        }
+        return history;
+    }
+
+    private void fetchBatch(String token, List<Window> batch, int currentYear,
+                            Map<String, ContributionsCollectionDTO> collections) {
+        StringBuilder declarations = new StringBuilder();
+        StringBuilder fields = new StringBuilder();
+        Map<String, Object> variables = new HashMap<>();
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        for (int i = 0; i < batch.size(); i++) {
+            Window window = batch.get(i);
+            OffsetDateTime from = OffsetDateTime.of(window.year(), 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+            OffsetDateTime to = window.year() < currentYear ? from.plusYears(1).minusSeconds(1) : now;
+            declarations.append(i == 0 ? "" : ", ")
+                    .append("$l").append(i).append(": String!, $f").append(i).append(": DateTime!, $t").append(i).append(": DateTime!");
+            fields.append("  w").append(i).append(": user(login: $l").append(i).append(") { contributionsCollection(from: $f")
+                    .append(i).append(", to: $t").append(i).append(") { ...Calendar } }\n");
+            variables.put("l" + i, window.login());
+            variables.put("f" + i, from.toString());
+            variables.put("t" + i, to.toString());
+        }
+        String document = "query History(" + declarations + ") {\n" + fields + "}\n" + CALENDAR_FRAGMENT;
+
+        ClientGraphQlResponse response;
+        try {
+            response = graphQlClient
+                    .mutate()
+                    .header("Authorization", "Bearer " + token)
+                    .header("User-Agent", "GitStatsApp")
+                    .build()
+                    .document(document)
+                    .variables(variables)
+                    .execute()
+                    .block();
+        } catch (RateLimitExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            log.warn("Error fetching contribution history: {}", e.getMessage());
+            throw new RuntimeException("Failed to fetch contribution history from GitHub", e);
+        }
+        if (response == null) {
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            Window window = batch.get(i);
+            ContributionsCollectionDTO collection;
+            try {
+                collection = response.field("w" + i + ".contributionsCollection").toEntity(ContributionsCollectionDTO.class);
+            } catch (Exception e) {
+                // Unknown login or a field-level error: leave this window empty
+                log.debug("No contribution data for {} in {}: {}", window.login(), window.year(), e.getMessage());
+                continue;
+            }
+            if (collection == null) {
+                continue;
+            }
+            collections.put(window.key(), collection);
+            if (window.year() < currentYear) {
+                finishedYears.put(window.key(), collection);
+            }
+        }
+    }
+}
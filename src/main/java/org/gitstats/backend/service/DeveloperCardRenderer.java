@@ -0,0 +1,244 @@
+package org.gitstats.backend.service;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Draws the developer card as SVG markup or, with Java2D on an offscreen
+ * image, as PNG. Both formats share one fixed layout: stats on the left, a
+ * language bar with legend on the right. Needs no display (Spring Boot runs
+ * with java.awt.headless=true), only the platform fonts.
+ */
+final class DeveloperCardRenderer {
+
+    // Part of the cache key: bump when the output for the same card changes
+    static final int VERSION = 1;
+
+    private static final int WIDTH = 495;
+    private static final int HEIGHT = 195;
+    private static final int PADDING = 25;
+    private static final int STATS_TOP = 68;
+    private static final int ROW_HEIGHT = 22;
+    private static final int LANGUAGES_LEFT = 270;
+    private static final int LANGUAGES_WIDTH = WIDTH - PADDING - LANGUAGES_LEFT;
+    private static final int PNG_SCALE = 2;
+
+    private static final String BACKGROUND = "#fffefe";
+    private static final String BORDER = "#e4e2e2";
+    private static final String TITLE = "#2f80ed";
+    private static final String TEXT = "#434d58";
+    private static final String BAR_TRACK = "#ededed";
+    private static final String FONT_FAMILY = "'Segoe UI', Ubuntu, 'DejaVu Sans', sans-serif";
+
+    // GitHub linguist colors of the most common languages; others get a stable derived color
+    private static final Map<String, String> LANGUAGE_COLORS = Map.ofEntries(
+            Map.entry("JavaScript", "#f1e05a"), Map.entry("TypeScript", "#3178c6"),
+            Map.entry("Java", "#b07219"), Map.entry("Python", "#3572a5"),
+            Map.entry("Go", "#00add8"), Map.entry("Rust", "#dea584"),
+            Map.entry("C", "#555555"), Map.entry("C++", "#f34b7d"),
+            Map.entry("C#", "#178600"), Map.entry("Ruby", "#701516"),
+            Map.entry("PHP", "#4f5d95"), Map.entry("Kotlin", "#a97bff"),
+            Map.entry("Swift", "#f05138"), Map.entry("Dart", "#00b4ab"),
+            Map.entry("HTML", "#e34c26"), Map.entry("CSS", "#563d7c"),
+            Map.entry("Shell", "#89e051"), Map.entry("Vue", "#41b883"),
+            Map.entry("Jupyter Notebook", "#da5b0b"), Map.entry("Scala", "#c22d40"));
+
+    record Card(String title, List<Stat> stats, List<LanguageShare> languages) {
+    }
+
+    record Stat(String label, String value) {
+    }
+
+    // share is a percentage
+    record LanguageShare(String name, double share) {
+    }
+
+    private DeveloperCardRenderer() {
+    }
+
+    // Everything the output depends on, in a fixed order; hashed into the cache key
+    static String canonical(Card card) {
+        StringBuilder out = new StringBuilder("v").append(VERSION).append('\n').append(card.title()).append('\n');
+        for (Stat stat : card.stats()) {
+            out.append(stat.label()).append('=').append(stat.value()).append('\n');
+        }
+        for (LanguageShare language : card.languages()) {
+            out.append(language.name()).append('=').append(percent(language.share())).append('\n');
+        }
+        return out.toString();
+    }
+
+    static byte[] svg(Card card) {
+        StringBuilder svg = new StringBuilder(2048);
+        svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(WIDTH)
+                .append("\" height=\"").append(HEIGHT).append("\" viewBox=\"0 0 ").append(WIDTH).append(' ').append(HEIGHT)
+                .append("\" role=\"img\" aria-label=\"").append(escape(card.title())).append("\">")
+                .append("<title>").append(escape(card.title())).append("</title>")
+                .append("<style>text{font-family:").append(FONT_FAMILY).append("}")
+                .append(".t{font-size:18px;font-weight:600;fill:").append(TITLE).append("}")
+                .append(".l{font-size:13px;fill:").append(TEXT).append("}")
+                .append(".v{font-size:13px;font-weight:700;fill:").append(TEXT).append("}")
+                .append(".h{font-size:14px;font-weight:600;fill:").append(TEXT).append("}")
+                .append(".s{font-size:11px;fill:").append(TEXT).append("}</style>");
+        svg.append("<rect x=\"0.5\" y=\"0.5\" rx=\"4.5\" width=\"").append(WIDTH - 1).append("\" height=\"").append(HEIGHT - 1)
+                .append("\" fill=\"").append(BACKGROUND).append("\" stroke=\"").append(BORDER).append("\"/>");
+        svg.append("<text class=\"t\" x=\"").append(PADDING).append("\" y=\"35\">").append(escape(card.title())).append("</text>");
+
+        int y = STATS_TOP;
+        for (Stat stat : card.stats()) {
+            svg.append("<text class=\"l\" x=\"").append(PADDING).append("\" y=\"").append(y).append("\">")
+                    .append(escape(stat.label())).append(":</text>")
+                    .append("<text class=\"v\" x=\"").append(LANGUAGES_LEFT - 20).append("\" y=\"").append(y)
+                    .append("\" text-anchor=\"end\">").append(escape(stat.value())).append("</text>");
+            y += ROW_HEIGHT;
+        }
+
+        if (!card.languages().isEmpty()) {
+            svg.append("<text class=\"h\" x=\"").append(LANGUAGES_LEFT).append("\" y=\"").append(STATS_TOP).append("\">Top languages</text>");
+            svg.append("<clipPath id=\"bar\"><rect x=\"").append(LANGUAGES_LEFT).append("\" y=\"").append(STATS_TOP + 10)
+                    .append("\" width=\"").append(LANGUAGES_WIDTH).append("\" height=\"8\" rx=\"4\"/></clipPath><g clip-path=\"url(#bar)\">")
+                    .append("<rect x=\"").append(LANGUAGES_LEFT).append("\" y=\"").append(STATS_TOP + 10)
+                    .append("\" width=\"").append(LANGUAGES_WIDTH).append("\" height=\"8\" fill=\"").append(BAR_TRACK).append("\"/>");
+            double x = LANGUAGES_LEFT;
+            for (LanguageShare language : card.languages()) {
+                double width = LANGUAGES_WIDTH * language.share() / 100.0;
+                svg.append("<rect x=\"").append(number(x)).append("\" y=\"").append(STATS_TOP + 10)
+                        .append("\" width=\"").append(number(width)).append("\" height=\"8\" fill=\"")
+                        .append(color(language.name())).append("\"/>");
+                x += width;
+            }
+            svg.append("</g>");
+            int legendY = STATS_TOP + 38;
+            for (LanguageShare language : card.languages()) {
+                svg.append("<circle cx=\"").append(LANGUAGES_LEFT + 5).append("\" cy=\"").append(legendY - 4)
+                        .append("\" r=\"5\" fill=\"").append(color(language.name())).append("\"/>")
+                        .append("<text class=\"s\" x=\"").append(LANGUAGES_LEFT + 16).append("\" y=\"").append(legendY).append("\">")
+                        .append(escape(language.name())).append(' ').append(percent(language.share())).append("</text>");
+                legendY += 18;
+            }
+        }
+        svg.append("</svg>");
+        return svg.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] png(Card card) {
+        BufferedImage image = new BufferedImage(WIDTH * PNG_SCALE, HEIGHT * PNG_SCALE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.scale(PNG_SCALE, PNG_SCALE);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+
+            RoundRectangle2D frame = new RoundRectangle2D.Double(0.5, 0.5, WIDTH - 1, HEIGHT - 1, 9, 9);
+            g.setColor(Color.decode(BACKGROUND));
+            g.fill(frame);
+            g.setColor(Color.decode(BORDER));
+            g.setStroke(new BasicStroke(1f));
+            g.draw(frame);
+
+            g.setColor(Color.decode(TITLE));
+            g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 18));
+            g.drawString(card.title(), PADDING, 35);
+
+            Font label = new Font(Font.SANS_SERIF, Font.PLAIN, 13);
+            Font value = new Font(Font.SANS_SERIF, Font.BOLD, 13);
+            g.setColor(Color.decode(TEXT));
+            int y = STATS_TOP;
+            for (Stat stat : card.stats()) {
+                g.setFont(label);
+                g.drawString(stat.label() + ":", PADDING, y);
+                g.setFont(value);
+                FontMetrics metrics = g.getFontMetrics();
+                g.drawString(stat.value(), LANGUAGES_LEFT - 20 - metrics.stringWidth(stat.value()), y);
+                y += ROW_HEIGHT;
+            }
+
+            if (!card.languages().isEmpty()) {
+                g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 14));
+                g.drawString("Top languages", LANGUAGES_LEFT, STATS_TOP);
+                g.setClip(new RoundRectangle2D.Double(LANGUAGES_LEFT, STATS_TOP + 10, LANGUAGES_WIDTH, 8, 8, 8));
+                g.setColor(Color.decode(BAR_TRACK));
+                g.fill(new Rectangle2D.Double(LANGUAGES_LEFT, STATS_TOP + 10, LANGUAGES_WIDTH, 8));
+                double x = LANGUAGES_LEFT;
+                for (LanguageShare language : card.languages()) {
+                    double width = LANGUAGES_WIDTH * language.share() / 100.0;
+                    g.setColor(Color.decode(color(language.name())));
+                    g.fill(new Rectangle2D.Double(x, STATS_TOP + 10, width, 8));
+                    x += width;
+                }
+                g.setClip(null);
+                g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 11));
+                int legendY = STATS_TOP + 38;
+                for (LanguageShare language : card.languages()) {
+                    g.setColor(Color.decode(color(language.name())));
+                    g.fill(new Ellipse2D.Double(LANGUAGES_LEFT, legendY - 9, 10, 10));
+                    g.setColor(Color.decode(TEXT));
+                    g.drawString(language.name() + " " + percent(language.share()), LANGUAGES_LEFT + 16, legendY);
+                    legendY += 18;
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    static String color(String language) {
+        String known = LANGUAGE_COLORS.get(language);
+        if (known != null) {
+            return known;
+        }
+        // Same language, same color: hue from the name's hash
+        Color derived = Color.getHSBColor((language.hashCode() & 0xFFFF) / 65536f, 0.55f, 0.75f);
+        return String.format(Locale.ROOT, "#%06x", derived.getRGB() & 0xFFFFFF);
+    }
+
+    private static String percent(double share) {
+        return String.format(Locale.ROOT, "%.1f%%", share);
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    private static String escape(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
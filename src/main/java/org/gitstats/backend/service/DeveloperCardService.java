@@ -0,0 +1,142 @@
+package org.gitstats.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.gitstats.backend.dto.GitHubRepoDTO;
+import org.gitstats.backend.dto.GitHubUserDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Developer card images rendered in the JVM. The card's content (profile,
+ * language shares, recent activity) is hashed first; rendered bytes are
+ * cached under that hash, so a card is only redrawn when something it shows
+ * changed, and the hash doubles as a strong ETag.
+ *
+ * Cards are public and cached by CDNs, so they only show data from the
+ * unauthenticated REST lookups, never anything fetched with a user's token.
+ */
+@Service
+public class DeveloperCardService {
+
+    private static final int MAX_TITLE = 40;
+
+    public enum Format {
+        SVG("image/svg+xml"),
+        PNG("image/png");
+
+        private final String mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+    }
+
+    private final GitHubService gitHubService;
+    private final Cache<String, byte[]> rendered;
+    private final int maxLanguages;
+
+    public DeveloperCardService(
+        GitHubService gitHubService,
+        @Value("${github.card.cache-max-bytes:33554432}") long cacheMaxBytes,
+        @Value("${github.card.max-languages:5}") int maxLanguages
+    ) {
+        this.gitHubService = gitHubService;
+        this.rendered = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxBytes)
+                .weigher((String hash, byte[] body) -> body.length)
+                .build();
+        this.maxLanguages = maxLanguages;
+    }
+
+    // Collects what the card shows (from the response caches) and hashes it; nothing is drawn yet
+    public PreparedCard prepare(String username, Format format) {
+        DeveloperCardRenderer.Card card = card(username);
+        return new PreparedCard(card, format, hash(format.name() + '\n' + DeveloperCardRenderer.canonical(card)));
+    }
+
+    public byte[] render(PreparedCard prepared) {
+        return rendered.get(prepared.hash(), hash -> switch (prepared.format()) {
+            case SVG -> DeveloperCardRenderer.svg(prepared.card());
+            case PNG -> DeveloperCardRenderer.png(prepared.card());
+        });
+    }
+
+    private DeveloperCardRenderer.Card card(String username) {
+        GitHubUserDTO user = gitHubService.getPublicUserInfo(username);
+        List<GitHubRepoDTO> repos = gitHubService.getPublicRepos(username);
+        String login = user != null && user.getLogin() != null ? user.getLogin() : username;
+        String name = user != null && user.getName() != null && !user.getName().isBlank() ? user.getName() : login;
+
+        long stars = 0;
+        long forks = 0;
+        for (GitHubRepoDTO repo : repos) {
+            stars += repo.getStargazersCount();
+            forks += repo.getForksCount();
+        }
+        List<DeveloperCardRenderer.Stat> stats = new ArrayList<>();
+        stats.add(new DeveloperCardRenderer.Stat("Total stars", compact(stars)));
+        stats.add(new DeveloperCardRenderer.Stat("Total forks", compact(forks)));
+        stats.add(new DeveloperCardRenderer.Stat("Followers", compact(user != null ? user.getFollowers() : 0)));
+        stats.add(new DeveloperCardRenderer.Stat("Public repos", compact(repos.size())));
+        // Not the contribution calendar: GitHub scopes it to the token that fetched it
+        long since = OffsetDateTime.now().minusDays(90).toEpochSecond();
+        stats.add(new DeveloperCardRenderer.Stat("Public events (90 days)",
+                compact(gitHubService.getPublicEventColumns(username).countSince(since))));
+
+        Map<String, Long> languages = gitHubService.calculateLanguageStats(repos);
+        long counted = languages.values().stream().mapToLong(Long::longValue).sum();
+        List<DeveloperCardRenderer.LanguageShare> shares = languages.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(maxLanguages)
+                .map(entry -> new DeveloperCardRenderer.LanguageShare(entry.getKey(), entry.getValue() * 100.0 / counted))
+                .toList();
+
+        String title = name + "'s GitHub Stats";
+        if (title.length() > MAX_TITLE) {
+            title = login + "'s GitHub Stats";
+        }
+        return new DeveloperCardRenderer.Card(title, List.copyOf(stats), shares);
+    }
+
+    private static String compact(long value) {
+        if (value < 1000) {
+            return Long.toString(value);
+        }
+        if (value < 1_000_000) {
+            return String.format(Locale.ROOT, "%.1fk", value / 1000.0);
+        }
+        return String.format(Locale.ROOT, "%.1fM", value / 1_000_000.0);
+    }
+
+    private static String hash(String canonical) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record PreparedCard(DeveloperCardRenderer.Card card, Format format, String hash) {
+
+        public String etag() {
+            return "\"" + hash + "\"";
+        }
+    }
+}
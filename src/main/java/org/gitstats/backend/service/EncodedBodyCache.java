@@ -0,0 +1,217 @@
+package org.gitstats.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Ready-to-send JSON for cached values: UTF-8 bytes plus gzip and brotli
+ * versions, produced once per cached value (normally while the response cache
+ * is filled) instead of serializing and compressing on every read.
+ *
+ * Entries are keyed by the identity of the cached value and held weakly, so
+ * they go away together with the value they were made from; a refreshed value
+ * is a new key. Brotli is skipped when its native library cannot be loaded.
+ */
+@Component
+public class EncodedBodyCache {
+
+    private static final Logger log = LoggerFactory.getLogger(EncodedBodyCache.class);
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Object, EncodedBody> bodies;
+    private final int minCompressBytes;
+    private final int gzipLevel;
+    private final Encoder.Parameters brotliParameters;
+    private final LongAdder encoded = new LongAdder();
+    private final LongAdder encodeNanos = new LongAdder();
+
+    public EncodedBodyCache(
+        ObjectMapper objectMapper,
+        @Value("${github.responses.max-bytes:67108864}") long maxBytes,
+        @Value("${github.responses.min-compress-bytes:1024}") int minCompressBytes,
+        @Value("${github.responses.gzip-level:9}") int gzipLevel,
+        @Value("${github.responses.brotli-quality:6}") int brotliQuality,
+        @Value("${github.responses.brotli:true}") boolean brotli
+    ) {
+        this.objectMapper = objectMapper;
+        this.bodies = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumWeight(maxBytes)
+                .weigher((Object value, EncodedBody body) -> body.weight())
+                .build();
+        this.minCompressBytes = minCompressBytes;
+        this.gzipLevel = gzipLevel;
+        this.brotliParameters = brotli && brotliAvailable() ? new Encoder.Parameters().setQuality(brotliQuality) : null;
+    }
+
+    private static boolean brotliAvailable() {
+        try {
+            Brotli4jLoader.ensureAvailability();
+            return true;
+        } catch (Throwable e) {
+            log.info("Brotli is not available on this platform, serving gzip only: {}", e.toString());
+            return false;
+        }
+    }
+
+    // Encoded form of body, cached for the lifetime of key (the cached value body was derived from)
+    public EncodedBody get(Object key, Supplier<?> body) {
+        if (key == null) {
+            return encode(body.get());
+        }
+        return bodies.get(key, k -> encode(body.get()));
+    }
+
+    // Encodes ahead of the first read
+    public void prime(Object key, Supplier<?> body) {
+        if (key != null) {
+            get(key, body);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", bodies.estimatedSize());
+        result.put("encoded", encoded.sum());
+        result.put("encodeMillis", encodeNanos.sum() / 1_000_000);
+        result.put("brotli", brotliParameters != null);
+        return result;
+    }
+
+    private EncodedBody encode(Object value) {
+        long start = System.nanoTime();
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] gzip = null;
+        byte[] brotli = null;
+        if (json.length >= minCompressBytes) {
+            gzip = smaller(gzip(json), json);
+            if (brotliParameters != null) {
+                brotli = smaller(brotli(json), json);
+            }
+        }
+        encoded.increment();
+        encodeNanos.add(System.nanoTime() - start);
+        return new EncodedBody(hash(json), json, gzip, brotli);
+    }
+
+    // A compressed version that is not smaller is not worth sending
+    private static byte[] smaller(byte[] compressed, byte[] json) {
+        return compressed != null && compressed.length < json.length ? compressed : null;
+    }
+
+    private byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(gzipLevel);
+            }
+        }) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] brotli(byte[] json) {
+        try {
+            return Encoder.compress(json, brotliParameters);
+        } catch (IOException e) {
+            log.warn("Brotli compression failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String hash(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * One JSON document in every encoding we send; gzip / brotli are null when
+     * the body is too small to compress (or brotli is unavailable).
+     */
+    public record EncodedBody(String hash, byte[] identity, byte[] gzip, byte[] brotli) {
+
+        int weight() {
+            return identity.length + (gzip != null ? gzip.length : 0) + (brotli != null ? brotli.length : 0);
+        }
+
+        // Picks the best coding the client accepts; each coding has its own strong ETag
+        public Representation select(String acceptEncoding) {
+            double br = quality(acceptEncoding, "br");
+            double gz = quality(acceptEncoding, "gzip");
+            if (brotli != null && br > 0 && br >= gz) {
+                return new Representation("br", brotli, "\"" + hash + "-br\"");
+            }
+            if (gzip != null && gz > 0) {
+                return new Representation("gzip", gzip, "\"" + hash + "-gzip\"");
+            }
+            return new Representation(null, identity, "\"" + hash + "\"");
+        }
+
+        // q-value of a coding in an Accept-Encoding header (0 if not acceptable)
+        static double quality(String acceptEncoding, String coding) {
+            if (acceptEncoding == null) {
+                return 0;
+            }
+            double wildcard = 0;
+            for (String item : acceptEncoding.split(",")) {
+                String[] parts = item.split(";");
+                String name = parts[0].trim().toLowerCase(Locale.ROOT);
+                double q = 1;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            q = Double.parseDouble(parameter.substring(2));
+                        } catch (NumberFormatException e) {
+                            q = 0;
+                        }
+                    }
+                }
+                if (name.equals(coding)) {
+                    return q;
+                }
+                if (name.equals("*")) {
+                    wildcard = q;
+                }
+            }
+            return wildcard;
+        }
+    }
+
+    // contentEncoding is null for the uncompressed JSON
+    public record Representation(String contentEncoding, byte[] body, String etag) {
+    }
+}
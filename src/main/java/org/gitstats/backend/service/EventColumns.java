@@ -0,0 +1,399 @@
+package org.gitstats.backend.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.gitstats.backend.dto.GitHubEventDTO;
+
+/**
+ * Immutable column-per-field copy of a user's public events: type as a byte
+ * code, creation time as epoch seconds and the repository as an index into a
+ * per-user dictionary. Push payloads are reduced to commit counts and a ref
+ * index. Keeps cached events compact and lets the insight aggregations run
+ * over primitive arrays. Events keep the API's order (newest first).
+ */
+public final class EventColumns {
+
+    private static final long NO_TIME = Long.MIN_VALUE;
+    // In the push size columns: not a push, or GitHub did not report the count
+    public static final int NOT_REPORTED = -1;
+    private static final int SECONDS_PER_DAY = 86_400;
+    // 1970-01-01 was a Thursday (index 4 when Sunday = 0) and 1970-01-05 the first Monday
+    private static final int EPOCH_WEEKDAY = 4;
+    private static final long FIRST_MONDAY_SECONDS = 4L * SECONDS_PER_DAY;
+
+    public enum Bucket {
+        HOUR(3_600), DAY(SECONDS_PER_DAY), WEEK(7L * SECONDS_PER_DAY);
+
+        private final long seconds;
+
+        Bucket(long seconds) {
+            this.seconds = seconds;
+        }
+    }
+
+    private final int size;
+    private final long[] ids;
+    private final byte[] types;
+    private final long[] createdAt;
+    private final int[] repos;
+
+    // Repository dictionary
+    private final long[] repoIds;
+    private final String[] repoNames;
+
+    // Rare values that don't fit their column: non-numeric event ids and unknown type names
+    private final Map<Integer, String> rawIds;
+    private final Map<Integer, String> otherTypes;
+
+    // Push payloads: commits, distinct commits and the ref as an index into refNames (-1 = none)
+    private final int[] pushSizes;
+    private final int[] pushDistinctSizes;
+    private final int[] refs;
+    private final String[] refNames;
+
+    private EventColumns(int size, long[] ids, byte[] types, long[] createdAt, int[] repos,
+                         long[] repoIds, String[] repoNames, Map<Integer, String> rawIds, Map<Integer, String> otherTypes,
+                         int[] pushSizes, int[] pushDistinctSizes, int[] refs, String[] refNames) {
+        this.size = size;
+        this.ids = ids;
+        this.types = types;
+        this.createdAt = createdAt;
+        this.repos = repos;
+        this.repoIds = repoIds;
+        this.repoNames = repoNames;
+        this.rawIds = rawIds;
+        this.otherTypes = otherTypes;
+        this.pushSizes = pushSizes;
+        this.pushDistinctSizes = pushDistinctSizes;
+        this.refs = refs;
+        this.refNames = refNames;
+    }
+
+    public static EventColumns of(List<GitHubEventDTO> events) {
+        int size = events.size();
+        long[] ids = new long[size];
+        byte[] types = new byte[size];
+        long[] createdAt = new long[size];
+        int[] repos = new int[size];
+        Map<Integer, String> rawIds = new HashMap<>();
+        Map<Integer, String> otherTypes = new HashMap<>();
+        int[] pushSizes = new int[size];
+        int[] pushDistinctSizes = new int[size];
+        int[] refs = new int[size];
+
+        Dictionary dictionary = new Dictionary(size);
+        Dictionary refDictionary = new Dictionary(4);
+        for (int i = 0; i < size; i++) {
+            GitHubEventDTO event = events.get(i);
+            ids[i] = parseId(event.getId(), i, rawIds);
+
+            EventType type = EventType.fromApiName(event.getType());
+            types[i] = type.code();
+            if (type == EventType.OTHER && event.getType() != null) {
+                otherTypes.put(i, event.getType());
+            }
+
+            createdAt[i] = event.getCreatedAt() != null ? event.getCreatedAt().toEpochSecond() : NO_TIME;
+            GitHubEventDTO.PayloadInfo payload = event.getPayload();
+            pushSizes[i] = payload != null && payload.getSize() != null ? payload.getSize() : NOT_REPORTED;
+            pushDistinctSizes[i] = payload != null && payload.getDistinctSize() != null ? payload.getDistinctSize() : NOT_REPORTED;
+            refs[i] = payload != null && payload.getRef() != null ? refDictionary.indexOf(-1, payload.getRef()) : -1;
+
+            GitHubEventDTO.RepoInfo repo = event.getRepo();
+            repos[i] = repo != null ? dictionary.indexOf(repo.getId() != null ? repo.getId() : -1, repo.getName()) : -1;
+        }
+        return new EventColumns(size, ids, types, createdAt, repos,
+                dictionary.ids(), dictionary.names(),
+                rawIds.isEmpty() ? Map.of() : Map.copyOf(rawIds),
+                otherTypes.isEmpty() ? Map.of() : Map.copyOf(otherTypes),
+                pushSizes, pushDistinctSizes, refs, refDictionary.names());
+    }
+
+    // Joins pages (in order) into one list with a single repository dictionary
+    public static EventColumns concat(List<EventColumns> pages) {
+        if (pages.size() == 1) {
+            return pages.get(0);
+        }
+        int size = 0;
+        for (EventColumns page : pages) {
+            size += page.size;
+        }
+        long[] ids = new long[size];
+        byte[] types = new byte[size];
+        long[] createdAt = new long[size];
+        int[] repos = new int[size];
+        Map<Integer, String> rawIds = new HashMap<>();
+        Map<Integer, String> otherTypes = new HashMap<>();
+        int[] pushSizes = new int[size];
+        int[] pushDistinctSizes = new int[size];
+        int[] refs = new int[size];
+        Dictionary dictionary = new Dictionary(size);
+        Dictionary refDictionary = new Dictionary(4);
+
+        int offset = 0;
+        for (EventColumns page : pages) {
+            int[] repoRemap = new int[page.repoNames.length];
+            for (int r = 0; r < repoRemap.length; r++) {
+                repoRemap[r] = dictionary.indexOf(page.repoIds[r], page.repoNames[r]);
+            }
+            int[] refRemap = new int[page.refNames.length];
+            for (int r = 0; r < refRemap.length; r++) {
+                refRemap[r] = refDictionary.indexOf(-1, page.refNames[r]);
+            }
+            System.arraycopy(page.ids, 0, ids, offset, page.size);
+            System.arraycopy(page.types, 0, types, offset, page.size);
+            System.arraycopy(page.createdAt, 0, createdAt, offset, page.size);
+            System.arraycopy(page.pushSizes, 0, pushSizes, offset, page.size);
+            System.arraycopy(page.pushDistinctSizes, 0, pushDistinctSizes, offset, page.size);
+            for (int i = 0; i < page.size; i++) {
+                repos[offset + i] = page.repos[i] >= 0 ? repoRemap[page.repos[i]] : -1;
+                refs[offset + i] = page.refs[i] >= 0 ? refRemap[page.refs[i]] : -1;
+            }
+            int base = offset;
+            page.rawIds.forEach((index, id) -> rawIds.put(base + index, id));
+            page.otherTypes.forEach((index, type) -> otherTypes.put(base + index, type));
+            offset += page.size;
+        }
+        return new EventColumns(size, ids, types, createdAt, repos,
+                dictionary.ids(), dictionary.names(),
+                rawIds.isEmpty() ? Map.of() : Map.copyOf(rawIds),
+                otherTypes.isEmpty() ? Map.of() : Map.copyOf(otherTypes),
+                pushSizes, pushDistinctSizes, refs, refDictionary.names());
+    }
+
+    private static long parseId(String id, int index, Map<Integer, String> rawIds) {
+        if (id == null) {
+            return -1;
+        }
+        try {
+            long value = Long.parseLong(id);
+            if (value >= 0 && Long.toString(value).equals(id)) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // kept verbatim below
+        }
+        rawIds.put(index, id);
+        return -1;
+    }
+
+    // Rebuilds the DTOs for callers that need the full objects
+    public List<GitHubEventDTO> toEvents() {
+        GitHubEventDTO.RepoInfo[] repoInfos = new GitHubEventDTO.RepoInfo[repoNames.length];
+        for (int r = 0; r < repoNames.length; r++) {
+            GitHubEventDTO.RepoInfo info = new GitHubEventDTO.RepoInfo();
+            info.setId(repoIds[r] >= 0 ? repoIds[r] : null);
+            info.setName(repoNames[r]);
+            repoInfos[r] = info;
+        }
+        GitHubEventDTO[] events = new GitHubEventDTO[size];
+        for (int i = 0; i < size; i++) {
+            GitHubEventDTO event = new GitHubEventDTO();
+            event.setId(ids[i] >= 0 ? Long.toString(ids[i]) : rawIds.get(i));
+            EventType type = EventType.fromCode(types[i]);
+            event.setType(type == EventType.OTHER ? otherTypes.get(i) : type.getApiName());
+            if (createdAt[i] != NO_TIME) {
+                event.setCreatedAt(OffsetDateTime.ofInstant(Instant.ofEpochSecond(createdAt[i]), ZoneOffset.UTC));
+            }
+            // RepoInfo is shared between events of the same repository
+            event.setRepo(repos[i] >= 0 ? repoInfos[repos[i]] : null);
+            if (type == EventType.PUSH) {
+                event.setPayload(payload(i));
+            }
+            events[i] = event;
+        }
+        return List.of(events);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Row access for consumers that walk events themselves; id is -1 when not numeric
+    public long id(int index) {
+        return ids[index];
+    }
+
+    public EventType type(int index) {
+        return EventType.fromCode(types[index]);
+    }
+
+    // Epoch seconds, or null when the event has no creation time
+    public Long createdAt(int index) {
+        return createdAt[index] != NO_TIME ? createdAt[index] : null;
+    }
+
+    // Index into the repository dictionary, -1 when the event has no repository
+    public int repo(int index) {
+        return repos[index];
+    }
+
+    // Commits in a push, NOT_REPORTED for other events or when GitHub omitted the count
+    public int pushSize(int index) {
+        return pushSizes[index];
+    }
+
+    public int pushDistinctSize(int index) {
+        return pushDistinctSizes[index];
+    }
+
+    // The pushed ref ("refs/heads/main"), or null
+    public String pushRef(int index) {
+        return refs[index] >= 0 ? refNames[refs[index]] : null;
+    }
+
+    private GitHubEventDTO.PayloadInfo payload(int index) {
+        if (pushSizes[index] == NOT_REPORTED && pushDistinctSizes[index] == NOT_REPORTED && refs[index] < 0) {
+            return null;
+        }
+        GitHubEventDTO.PayloadInfo payload = new GitHubEventDTO.PayloadInfo();
+        payload.setSize(pushSizes[index] != NOT_REPORTED ? pushSizes[index] : null);
+        payload.setDistinctSize(pushDistinctSizes[index] != NOT_REPORTED ? pushDistinctSizes[index] : null);
+        payload.setRef(pushRef(index));
+        return payload;
+    }
+
+    public int repoCount() {
+        return repoNames.length;
+    }
+
+    public String repoName(int repo) {
+        return repoNames[repo];
+    }
+
+    // Newest / oldest creation time in epoch seconds, or null when no event has one
+    public Long newest() {
+        long max = NO_TIME;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, createdAt[i]);
+        }
+        return max == NO_TIME ? null : max;
+    }
+
+    public Long oldest() {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            if (createdAt[i] != NO_TIME) {
+                min = Math.min(min, createdAt[i]);
+            }
+        }
+        return min == Long.MAX_VALUE ? null : min;
+    }
+
+    public int countSince(long epochSecond) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (createdAt[i] != NO_TIME && createdAt[i] > epochSecond) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // [weekday][hour] in the given zone, weekday index 0 = Sunday
+    public int[][] hourByWeekday(ZoneRules zone) {
+        int[][] counts = new int[7][24];
+        for (int i = 0; i < size; i++) {
+            if (createdAt[i] == NO_TIME) {
+                continue;
+            }
+            long local = localSeconds(createdAt[i], zone);
+            long day = Math.floorDiv(local, SECONDS_PER_DAY);
+            int hour = (int) (Math.floorMod(local, SECONDS_PER_DAY) / 3_600);
+            counts[(int) Math.floorMod(day + EPOCH_WEEKDAY, 7)][hour]++;
+        }
+        return counts;
+    }
+
+    // Events per repository, indexed like the repository dictionary
+    public int[] perRepo() {
+        int[] counts = new int[repoNames.length];
+        for (int i = 0; i < size; i++) {
+            if (repos[i] >= 0) {
+                counts[repos[i]]++;
+            }
+        }
+        return counts;
+    }
+
+    public int[] perType() {
+        int[] counts = new int[EventType.values().length];
+        for (int i = 0; i < size; i++) {
+            counts[types[i]]++;
+        }
+        return counts;
+    }
+
+    // Local bucket start -> events per type (indexed by type code); weeks start on Monday
+    public TreeMap<LocalDateTime, int[]> perTypeOverTime(Bucket bucket, ZoneRules zone) {
+        int typeCount = EventType.values().length;
+        TreeMap<Long, int[]> byStart = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            if (createdAt[i] == NO_TIME) {
+                continue;
+            }
+            long local = localSeconds(createdAt[i], zone);
+            long start = bucket == Bucket.WEEK
+                    ? Math.floorDiv(local - FIRST_MONDAY_SECONDS, bucket.seconds) * bucket.seconds + FIRST_MONDAY_SECONDS
+                    : Math.floorDiv(local, bucket.seconds) * bucket.seconds;
+            byStart.computeIfAbsent(start, key -> new int[typeCount])[types[i]]++;
+        }
+        TreeMap<LocalDateTime, int[]> result = new TreeMap<>();
+        byStart.forEach((start, counts) -> result.put(LocalDateTime.ofEpochSecond(start, 0, ZoneOffset.UTC), counts));
+        return result;
+    }
+
+    // Repositories keyed by id, or by name when GitHub omits the id (id -1); refs only have names
+    private static final class Dictionary {
+
+        private final Map<Object, Integer> indices = new HashMap<>();
+        private long[] ids;
+        private String[] names;
+
+        Dictionary(int expected) {
+            ids = new long[Math.min(expected, 16)];
+            names = new String[ids.length];
+        }
+
+        int indexOf(long id, String name) {
+            Object key = id >= 0 ? (Object) id : name;
+            Integer index = indices.get(key);
+            if (index == null) {
+                index = indices.size();
+                indices.put(key, index);
+                if (index == ids.length) {
+                    int grown = Math.max(16, ids.length * 2);
+                    ids = Arrays.copyOf(ids, grown);
+                    names = Arrays.copyOf(names, grown);
+                }
+                ids[index] = id;
+                names[index] = name;
+            }
+            return index;
+        }
+
+        long[] ids() {
+            return Arrays.copyOf(ids, indices.size());
+        }
+
+        String[] names() {
+            return Arrays.copyOf(names, indices.size());
+        }
+    }
+
+    static long localSeconds(long epochSecond, ZoneRules zone) {
+        ZoneOffset offset = zone.isFixedOffset()
+                ? zone.getOffset(Instant.EPOCH)
+                : zone.getOffset(Instant.ofEpochSecond(epochSecond));
+        return epochSecond + offset.getTotalSeconds();
+    }
+}
@@ -0,0 +1,127 @@
+package org.gitstats.backend.service;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.TextStyle;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.gitstats.backend.dto.EventInsightsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Activity insights over a user's public events (when they are active, where
+ * and doing what), computed from the cached {@link EventColumns}.
+ */
+@Service
+public class EventInsightsService {
+
+    private static final EventType[] TYPES = EventType.values();
+
+    private final GitHubService gitHubService;
+    private final int maxRepos;
+
+    public EventInsightsService(GitHubService gitHubService,
+                                @Value("${github.events.insights-max-repos:20}") int maxRepos) {
+        this.gitHubService = gitHubService;
+        this.maxRepos = maxRepos;
+    }
+
+    public EventInsightsDTO getInsights(String username, ZoneId zone, EventColumns.Bucket bucket) {
+        EventColumns events = gitHubService.getPublicEventColumns(username);
+        ZoneRules rules = zone.getRules();
+
+        EventInsightsDTO insights = new EventInsightsDTO();
+        insights.setLogin(username);
+        insights.setZone(zone.getId());
+        insights.setTotalEvents(events.size());
+        insights.setFrom(toDateTime(events.oldest(), zone));
+        insights.setTo(toDateTime(events.newest(), zone));
+
+        int[][] hourByWeekday = events.hourByWeekday(rules);
+        int[] hourTotals = new int[24];
+        int[] weekdayTotals = new int[7];
+        for (int day = 0; day < 7; day++) {
+            for (int hour = 0; hour < 24; hour++) {
+                hourTotals[hour] += hourByWeekday[day][hour];
+                weekdayTotals[day] += hourByWeekday[day][hour];
+            }
+        }
+        insights.setHourByWeekday(hourByWeekday);
+        insights.setHourTotals(hourTotals);
+        insights.setWeekdayTotals(weekdayTotals);
+        int busiestHour = argMax(hourTotals);
+        int busiestDay = argMax(weekdayTotals);
+        insights.setBusiestHour(busiestHour >= 0 ? busiestHour : null);
+        // Index 0 = Sunday, DayOfWeek.of expects 1 = Monday .. 7 = Sunday
+        insights.setBusiestWeekday(busiestDay >= 0
+                ? DayOfWeek.of(busiestDay == 0 ? 7 : busiestDay).getDisplayName(TextStyle.FULL, Locale.ENGLISH)
+                : null);
+
+        insights.setRepos(topRepos(events));
+        insights.setTypes(typeCounts(events.perType()));
+
+        insights.setBucket(bucket.name().toLowerCase(Locale.ROOT));
+        List<EventInsightsDTO.Bucket> timeline = new ArrayList<>();
+        events.perTypeOverTime(bucket, rules).forEach((start, counts) -> {
+            EventInsightsDTO.Bucket entry = new EventInsightsDTO.Bucket();
+            entry.setStart(start);
+            entry.setTypes(typeCounts(counts));
+            timeline.add(entry);
+        });
+        insights.setTimeline(timeline);
+        return insights;
+    }
+
+    private Map<String, Integer> topRepos(EventColumns events) {
+        int[] counts = events.perRepo();
+        TopK<Integer> top = new TopK<>(maxRepos, Comparator.comparingInt(repo -> counts[repo]));
+        for (int repo = 0; repo < counts.length; repo++) {
+            top.offer(repo);
+        }
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int repo : top.toList()) {
+            result.put(events.repoName(repo), counts[repo]);
+        }
+        return result;
+    }
+
+    // Non-zero counts keyed by API type name, most frequent first
+    private static Map<String, Integer> typeCounts(int[] counts) {
+        List<Integer> codes = new ArrayList<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                codes.add(code);
+            }
+        }
+        codes.sort(Comparator.comparingInt((Integer code) -> counts[code]).reversed());
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int code : codes) {
+            EventType type = TYPES[code];
+            result.put(type == EventType.OTHER ? "Other" : type.getApiName(), counts[code]);
+        }
+        return result;
+    }
+
+    private static int argMax(int[] values) {
+        int best = -1;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] > 0 && (best < 0 || values[i] > values[best])) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static OffsetDateTime toDateTime(Long epochSecond, ZoneId zone) {
+        return epochSecond != null ? OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), zone) : null;
+    }
+}
@@ -0,0 +1,65 @@
+package org.gitstats.backend.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * GitHub event types, stored as their one-byte code in {@link EventColumns}.
+ * Types GitHub adds later map to {@link #OTHER}.
+ */
+public enum EventType {
+
+    COMMIT_COMMENT("CommitCommentEvent"),
+    CREATE("CreateEvent"),
+    DELETE("DeleteEvent"),
+    DISCUSSION("DiscussionEvent"),
+    FORK("ForkEvent"),
+    GOLLUM("GollumEvent"),
+    ISSUE_COMMENT("IssueCommentEvent"),
+    ISSUES("IssuesEvent"),
+    MEMBER("MemberEvent"),
+    PUBLIC("PublicEvent"),
+    PULL_REQUEST("PullRequestEvent"),
+    PULL_REQUEST_REVIEW("PullRequestReviewEvent"),
+    PULL_REQUEST_REVIEW_COMMENT("PullRequestReviewCommentEvent"),
+    PULL_REQUEST_REVIEW_THREAD("PullRequestReviewThreadEvent"),
+    PUSH("PushEvent"),
+    RELEASE("ReleaseEvent"),
+    SPONSORSHIP("SponsorshipEvent"),
+    WATCH("WatchEvent"),
+    OTHER(null);
+
+    private static final EventType[] BY_CODE = values();
+    private static final Map<String, EventType> BY_NAME = new HashMap<>();
+
+    static {
+        for (EventType type : BY_CODE) {
+            if (type.apiName != null) {
+                BY_NAME.put(type.apiName, type);
+            }
+        }
+    }
+
+    private final String apiName;
+
+    EventType(String apiName) {
+        this.apiName = apiName;
+    }
+
+    // Name as used in the API's "type" field, null for OTHER
+    public String getApiName() {
+        return apiName;
+    }
+
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    public static EventType fromCode(byte code) {
+        return BY_CODE[code];
+    }
+
+    public static EventType fromApiName(String name) {
+        return name == null ? OTHER : BY_NAME.getOrDefault(name, OTHER);
+    }
+}
@@ -0,0 +1,362 @@
+package org.gitstats.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.gitstats.backend.dto.GitHubEventDTO;
+import org.gitstats.backend.dto.GitHubRepoDTO;
+import org.gitstats.backend.dto.GitHubUserDTO;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streaming reader for the GitHub REST payloads we cache. Only the fields the
+ * DTOs map are read; every other value (GitHub sends 80+ fields per repo, with
+ * nested owner / license / permission objects) is skipped at token level
+ * without building objects. List responses can be consumed element by element.
+ */
+public final class GitHubJsonDecoder {
+
+    private static final String PUSH_EVENT = EventType.PUSH.getApiName();
+
+    private final JsonFactory jsonFactory;
+
+    public GitHubJsonDecoder() {
+        this(new JsonFactory());
+    }
+
+    public GitHubJsonDecoder(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    @FunctionalInterface
+    private interface ElementReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    // GitHubUserDTO, or List<X> for a DTO X this decoder knows
+    public boolean supports(Type type) {
+        if (type == GitHubUserDTO.class || type == GitHubRepoDTO.class || type == GitHubEventDTO.class) {
+            return true;
+        }
+        return type instanceof ParameterizedType list
+                && list.getRawType() == List.class
+                && elementReader(list.getActualTypeArguments()[0]) != null;
+    }
+
+    public Object read(Type type, InputStream body) throws IOException {
+        if (type instanceof ParameterizedType list) {
+            List<Object> result = new ArrayList<>();
+            readArray(body, elementReader(list.getActualTypeArguments()[0]), result::add);
+            return result;
+        }
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            return parser.nextToken() != null ? elementReader(type).read(parser) : null;
+        }
+    }
+
+    public GitHubUserDTO readUser(InputStream body) throws IOException {
+        return (GitHubUserDTO) read(GitHubUserDTO.class, body);
+    }
+
+    // Hands each repo to the sink as soon as it is decoded; returns how many were read
+    public int readRepos(InputStream body, Consumer<? super GitHubRepoDTO> sink) throws IOException {
+        return readArray(body, GitHubJsonDecoder::parseRepo, sink);
+    }
+
+    public int readEvents(InputStream body, Consumer<? super GitHubEventDTO> sink) throws IOException {
+        return readArray(body, GitHubJsonDecoder::parseEvent, sink);
+    }
+
+    private static ElementReader<?> elementReader(Type type) {
+        if (type == GitHubRepoDTO.class) {
+            return GitHubJsonDecoder::parseRepo;
+        }
+        if (type == GitHubEventDTO.class) {
+            return GitHubJsonDecoder::parseEvent;
+        }
+        if (type == GitHubUserDTO.class) {
+            return GitHubJsonDecoder::parseUser;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> int readArray(InputStream body, ElementReader<?> reader, Consumer<? super T> sink) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL || token == null) {
+                return 0;
+            }
+            expect(parser, token, JsonToken.START_ARRAY);
+            int count = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                sink.accept((T) reader.read(parser));
+                count++;
+            }
+            return count;
+        }
+    }
+
+    // Each reader is called positioned on START_OBJECT (or null) and returns on its END_OBJECT
+
+    private static GitHubUserDTO parseUser(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        GitHubUserDTO user = new GitHubUserDTO();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "login" -> user.setLogin(text(parser, value));
+                case "avatar_url" -> user.setAvatarUrl(text(parser, value));
+                case "name" -> user.setName(text(parser, value));
+                case "bio" -> user.setBio(text(parser, value));
+                case "created_at" -> user.setCreatedAt(dateTime(parser, value));
+                case "followers" -> user.setFollowers(intValue(parser, value));
+                case "following" -> user.setFollowing(intValue(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+        return user;
+    }
+
+    private static GitHubRepoDTO parseRepo(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        GitHubRepoDTO repo = new GitHubRepoDTO();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> repo.setId(longValue(parser, value));
+                case "name" -> repo.setName(text(parser, value));
+                case "full_name" -> repo.setFullName(text(parser, value));
+                case "description" -> repo.setDescription(text(parser, value));
+                case "html_url" -> repo.setHtmlUrl(text(parser, value));
+                case "stargazers_count" -> repo.setStargazersCount(intValue(parser, value));
+                case "forks_count" -> repo.setForksCount(intValue(parser, value));
+                case "language" -> repo.setLanguage(text(parser, value));
+                case "created_at" -> repo.setCreatedAt(dateTime(parser, value));
+                case "pushed_at" -> repo.setPushedAt(dateTime(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+        return repo;
+    }
+
+    private static GitHubEventDTO parseEvent(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        GitHubEventDTO event = new GitHubEventDTO();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> event.setId(text(parser, value));
+                case "type" -> event.setType(text(parser, value));
+                case "created_at" -> event.setCreatedAt(dateTime(parser, value));
+                case "repo" -> event.setRepo(parseEventRepo(parser, value));
+                // payload is by far the largest part of an event; only a push's is read
+                case "payload" -> {
+                    if (event.getType() == null || PUSH_EVENT.equals(event.getType())) {
+                        event.setPayload(parsePushPayload(parser, value));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        // The type can follow the payload
+        if (event.getPayload() != null && !PUSH_EVENT.equals(event.getType())) {
+            event.setPayload(null);
+        }
+        return event;
+    }
+
+    private static GitHubEventDTO.PayloadInfo parsePushPayload(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        GitHubEventDTO.PayloadInfo payload = new GitHubEventDTO.PayloadInfo();
+        CommitCounts counted = null;
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "size" -> payload.setSize(integerValue(parser, value));
+                case "distinct_size" -> payload.setDistinctSize(integerValue(parser, value));
+                case "ref" -> payload.setRef(text(parser, value));
+                case "commits" -> counted = countCommits(parser, value);
+                default -> parser.skipChildren();
+            }
+        }
+        // The commit list itself (SHAs, messages) is not kept; it only stands in for missing sizes
+        if (counted != null) {
+            if (payload.getSize() == null) {
+                payload.setSize(counted.commits());
+            }
+            if (payload.getDistinctSize() == null) {
+                payload.setDistinctSize(counted.distinct());
+            }
+        }
+        return payload;
+    }
+
+    private record CommitCounts(int commits, int distinct) {
+    }
+
+    // Commits in a push's commit list, and those not marked "distinct": false
+    private static CommitCounts countCommits(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        int commits = 0;
+        int distinct = 0;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            boolean isDistinct = true;
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken value = parser.nextToken();
+                if (field.equals("distinct")) {
+                    isDistinct = !Boolean.FALSE.equals(booleanValue(parser, value));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            commits++;
+            if (isDistinct) {
+                distinct++;
+            }
+        }
+        // Anything but objects in the array (not sent by GitHub) ends the list
+        if (parser.currentToken() != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                parser.skipChildren();
+            }
+        }
+        return new CommitCounts(commits, distinct);
+    }
+
+    private static GitHubEventDTO.RepoInfo parseEventRepo(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expect(parser, token, JsonToken.START_OBJECT);
+        GitHubEventDTO.RepoInfo repo = new GitHubEventDTO.RepoInfo();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> repo.setId(longValue(parser, value));
+                case "name" -> repo.setName(text(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+        return repo;
+    }
+
+    private static String text(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getText();
+    }
+
+    private static int intValue(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        parser.skipChildren();
+        return 0;
+    }
+
+    private static Integer integerValue(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static Boolean booleanValue(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+            return token == JsonToken.VALUE_TRUE;
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static Long longValue(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static OffsetDateTime dateTime(JsonParser parser, JsonToken token) throws IOException {
+        String text = text(parser, token);
+        return text != null ? parseDateTime(text) : null;
+    }
+
+    // GitHub always sends "yyyy-MM-ddTHH:mm:ssZ"; anything else goes through the full ISO parser
+    static OffsetDateTime parseDateTime(String text) {
+        if (text.length() == 20 && text.charAt(19) == 'Z' && text.charAt(10) == 'T'
+                && text.charAt(4) == '-' && text.charAt(7) == '-' && text.charAt(13) == ':' && text.charAt(16) == ':') {
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 7);
+            int day = digits(text, 8, 10);
+            int hour = digits(text, 11, 13);
+            int minute = digits(text, 14, 16);
+            int second = digits(text, 17, 19);
+            if (year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0 && second >= 0) {
+                return OffsetDateTime.of(year, month, day, hour, minute, second, 0, ZoneOffset.UTC);
+            }
+        }
+        return OffsetDateTime.parse(text);
+    }
+
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new JsonParseException(parser,
+                    "Expected " + expected + " but found " + actual);
+        }
+    }
+}
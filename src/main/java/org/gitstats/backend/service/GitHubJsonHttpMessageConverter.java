@@ -0,0 +1,70 @@
+package org.gitstats.backend.service;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/**
+ * Plugs {@link GitHubJsonDecoder} into RestClient ahead of the Jackson data-binding
+ * converter. Read-only; everything it doesn't know falls through to the defaults.
+ */
+public class GitHubJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final GitHubJsonDecoder decoder;
+
+    public GitHubJsonHttpMessageConverter(GitHubJsonDecoder decoder) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.decoder = decoder;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return decoder.supports(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return decoder.supports(type) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return decode(type, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return decode(clazz, inputMessage);
+    }
+
+    private Object decode(Type type, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return decoder.read(type, inputMessage.getBody());
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("Malformed GitHub response: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+
+    // Never called: both canWrite variants return false, so RestClient picks another converter for request bodies
+    @Override
+    protected void writeInternal(Object value, @Nullable Type type, HttpOutputMessage outputMessage) {
+    }
+}
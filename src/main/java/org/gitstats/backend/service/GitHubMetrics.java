@@ -0,0 +1,165 @@
+package org.gitstats.backend.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Metrics for calls to GitHub. Every upstream request is timed (up to the
+ * response headers) as {@code github.requests}, tagged with the endpoint
+ * template, method and outcome; {@code github.requests.in.flight} counts calls
+ * currently on the wire. Also publishes the rate-limit scheduler's headroom and
+ * throttling counters and per-cache hit ratios.
+ *
+ * The interceptor and filter belong inside the rate-limit ones, so time spent
+ * waiting for budget is not counted as GitHub latency.
+ */
+@Component
+public class GitHubMetrics {
+
+    public enum Outcome { SUCCESS, NOT_MODIFIED, RATE_LIMITED, CLIENT_ERROR, SERVER_ERROR, IO_ERROR }
+
+    // Concrete paths mapped to low-cardinality templates; anything else is "other"
+    private static final List<Map.Entry<Pattern, String>> ENDPOINTS = List.of(
+            Map.entry(Pattern.compile(".*/graphql"), "/graphql"),
+            Map.entry(Pattern.compile(".*/users/[^/]+"), "/users/{login}"),
+            Map.entry(Pattern.compile(".*/users/[^/]+/repos"), "/users/{login}/repos"),
+            Map.entry(Pattern.compile(".*/users/[^/]+/events/public"), "/users/{login}/events/public"),
+            Map.entry(Pattern.compile(".*/users/[^/]+/events"), "/users/{login}/events"),
+            Map.entry(Pattern.compile(".*/user"), "/user"),
+            Map.entry(Pattern.compile(".*/user/repos"), "/user/repos"),
+            Map.entry(Pattern.compile(".*/repos/[^/]+/[^/]+/languages"), "/repos/{owner}/{repo}/languages"));
+
+    private final MeterRegistry registry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public GitHubMetrics(MeterRegistry registry, RateLimitScheduler rateLimitScheduler) {
+        this.registry = registry;
+        Gauge.builder("github.requests.in.flight", inFlight, AtomicInteger::get)
+                .description("GitHub requests currently waiting for a response")
+                .register(registry);
+
+        String anonymousCore = TokenFingerprint.ANONYMOUS + ":core";
+        Gauge.builder("github.ratelimit.remaining", rateLimitScheduler, scheduler -> known(scheduler.remaining(anonymousCore)))
+                .description("Calls left in the unauthenticated core budget")
+                .tag("pool", "anonymous")
+                .register(registry);
+        Gauge.builder("github.ratelimit.remaining.min", rateLimitScheduler, scheduler -> known(scheduler.minRemaining()))
+                .description("Lowest remaining budget across all tracked pools")
+                .register(registry);
+        Gauge.builder("github.ratelimit.waiting", rateLimitScheduler, RateLimitScheduler::getWaiting)
+                .description("Callers currently paced by the rate-limit scheduler")
+                .register(registry);
+        FunctionCounter.builder("github.ratelimit.throttled", rateLimitScheduler, RateLimitScheduler::getDelayed)
+                .tag("action", "delayed")
+                .register(registry);
+        FunctionCounter.builder("github.ratelimit.throttled", rateLimitScheduler, RateLimitScheduler::getShed)
+                .tag("action", "shed")
+                .register(registry);
+        FunctionCounter.builder("github.ratelimit.throttled", rateLimitScheduler, RateLimitScheduler::getRejected)
+                .tag("action", "rejected")
+                .register(registry);
+    }
+
+    private static double known(int value) {
+        return value >= 0 ? value : Double.NaN;
+    }
+
+    // Caffeine statistics (gets by result, evictions, ...) plus a hit ratio gauge
+    public void monitor(ResponseCache<?, ?> cache) {
+        cache.bindTo(registry);
+    }
+
+    public void monitor(ConditionalRequestCache conditionalCache) {
+        FunctionCounter.builder("github.conditional.responses", conditionalCache, ConditionalRequestCache::getNotModified)
+                .tag("result", "not_modified")
+                .register(registry);
+        FunctionCounter.builder("github.conditional.responses", conditionalCache, ConditionalRequestCache::getModified)
+                .tag("result", "modified")
+                .register(registry);
+    }
+
+    // For RestClient
+    public ClientHttpRequestInterceptor interceptor() {
+        return (request, body, execution) -> {
+            String endpoint = endpoint(request.getURI().getPath());
+            String method = request.getMethod().name();
+            long start = System.nanoTime();
+            inFlight.incrementAndGet();
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                record(endpoint, method, outcome(response.getStatusCode().value(), response.getHeaders()), start);
+                return response;
+            } catch (IOException | RuntimeException e) {
+                record(endpoint, method, Outcome.IO_ERROR, start);
+                throw e;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        };
+    }
+
+    // For WebClient / GraphQL
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> Mono.defer(() -> {
+            String endpoint = endpoint(request.url().getPath());
+            String method = request.method().name();
+            long start = System.nanoTime();
+            inFlight.incrementAndGet();
+            return next.exchange(request)
+                    .doOnNext(response -> record(endpoint, method,
+                            outcome(response.statusCode().value(), response.headers().asHttpHeaders()), start))
+                    .doOnError(e -> record(endpoint, method, Outcome.IO_ERROR, start))
+                    .doFinally(signal -> inFlight.decrementAndGet());
+        });
+    }
+
+    private void record(String endpoint, String method, Outcome outcome, long startNanos) {
+        Timer.builder("github.requests")
+                .description("Calls to the GitHub API, up to the response headers")
+                .tag("endpoint", endpoint)
+                .tag("method", method)
+                .tag("outcome", outcome.name())
+                .register(registry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    static String endpoint(String path) {
+        if (path != null) {
+            for (Map.Entry<Pattern, String> entry : ENDPOINTS) {
+                if (entry.getKey().matcher(path).matches()) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return "other";
+    }
+
+    static Outcome outcome(int status, HttpHeaders headers) {
+        if (status == 304) {
+            return Outcome.NOT_MODIFIED;
+        }
+        if (status >= 200 && status < 300) {
+            return Outcome.SUCCESS;
+        }
+        if (RateLimitScheduler.isRateLimited(status, headers)) {
+            return Outcome.RATE_LIMITED;
+        }
+        return status >= 500 ? Outcome.SERVER_ERROR : Outcome.CLIENT_ERROR;
+    }
+}
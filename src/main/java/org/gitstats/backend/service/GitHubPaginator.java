@@ -0,0 +1,112 @@
+package org.gitstats.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fetches every page of a paginated GitHub list. The first page is loaded to
+ * learn the last page number from the Link header, then the remaining pages are
+ * fetched concurrently (bounded per call) and merged back in page order.
+ */
+@Component
+public class GitHubPaginator {
+
+    private static final Pattern LAST_PAGE = Pattern.compile("<[^>]*[?&]page=(\\d+)[^>]*>\\s*;\\s*rel=\"last\"");
+
+    private final ExecutorService pageFetchExecutor;
+    private final int concurrency;
+    private final int defaultMaxPages;
+
+    public GitHubPaginator(
+        @Qualifier("pageFetchExecutor") ExecutorService pageFetchExecutor,
+        @Value("${github.pagination.concurrency:8}") int concurrency,
+        @Value("${github.pagination.max-pages:10}") int defaultMaxPages
+    ) {
+        this.pageFetchExecutor = pageFetchExecutor;
+        this.concurrency = Math.max(1, concurrency);
+        this.defaultMaxPages = Math.max(1, defaultMaxPages);
+    }
+
+    public record Page<T>(List<T> items, String link) {
+    }
+
+    public <T> List<T> fetchAll(IntFunction<Page<T>> pageLoader) {
+        return fetchAll(pageLoader, defaultMaxPages);
+    }
+
+    public <T> List<T> fetchAll(IntFunction<Page<T>> pageLoader, int maxPages) {
+        Page<T> first = pageLoader.apply(1);
+        List<T> firstItems = first.items() != null ? first.items() : List.of();
+        int lastPage = Math.min(lastPage(first.link()), Math.max(1, maxPages));
+        if (lastPage <= 1) {
+            return firstItems;
+        }
+
+        // Each worker claims the next unfetched page until none are left,
+        // so at most `concurrency` requests are in flight for this call.
+        @SuppressWarnings("unchecked")
+        List<T>[] pages = new List[lastPage];
+        pages[0] = firstItems;
+        AtomicInteger nextPage = new AtomicInteger(2);
+        // Once any page fails (or the caller is interrupted) nobody claims further pages
+        AtomicBoolean failed = new AtomicBoolean();
+        Runnable worker = () -> {
+            int page;
+            while (!failed.get() && (page = nextPage.getAndIncrement()) <= lastPage) {
+                try {
+                    List<T> items = pageLoader.apply(page).items();
+                    pages[page - 1] = items != null ? items : List.of();
+                } catch (RuntimeException | Error e) {
+                    failed.set(true);
+                    throw e;
+                }
+            }
+        };
+
+        int workers = Math.min(concurrency, lastPage - 1);
+        List<CompletableFuture<Void>> running = new ArrayList<>(workers);
+        for (int i = 1; i < workers; i++) {
+            running.add(CompletableFuture.runAsync(worker, pageFetchExecutor));
+        }
+        // The calling thread works too instead of just waiting
+        worker.run();
+        try {
+            CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        int total = 0;
+        for (List<T> items : pages) {
+            total += items.size();
+        }
+        List<T> merged = new ArrayList<>(total);
+        for (List<T> items : pages) {
+            merged.addAll(items);
+        }
+        return merged;
+    }
+
+    static int lastPage(String linkHeader) {
+        if (linkHeader == null) {
+            return 1;
+        }
+        Matcher matcher = LAST_PAGE.matcher(linkHeader);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 1;
+    }
+}
@@ -3,87 +3,361 @@ package org.gitstats.backend.service;
 import org.gitstats.backend.dto.GitHubUserDTO;
 import org.gitstats.backend.dto.GitHubRepoDTO;
 import org.gitstats.backend.dto.GitHubEventDTO;
+import org.gitstats.backend.dto.ContributionsCollectionDTO;
+import org.gitstats.backend.config.GitHubCacheProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.graphql.client.HttpGraphQlClient;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 import java.util.function.Function;
 
 @Service
 public class GitHubService {
 
+    private static final Logger log = LoggerFactory.getLogger(GitHubService.class);
+
     private final RestClient restClient;
     private final HttpGraphQlClient graphQlClient;
+    private final ConditionalRequestCache conditionalCache;
+    private final GitHubPaginator paginator;
+    private final TokenIdentityCache tokenIdentities;
+    private final SnapshotStore snapshotStore;
+    private final ProfileRequestTracker requestTracker;
+    private final EncodedBodyCache encodedBodies;
+    private final SingleFlight<String, ConditionalRequestCache.Validated<?>> inFlightRequests = new SingleFlight<>();
+
+    private final ResponseCache<String, GitHubUserDTO> userCache;
+    private final ResponseCache<String, List<GitHubRepoDTO>> repoCache;
+    private final ResponseCache<String, EventColumns> eventCache;
 
     @Value("${github.api.base-url:https://api.github.com}")
     private String githubApiBaseUrl;
 
     public GitHubService(
         RestClient.Builder restClientBuilder,
-        HttpGraphQlClient graphQlClient
+        HttpGraphQlClient graphQlClient,
+        ConditionalRequestCache conditionalCache,
+        GitHubPaginator paginator,
+        TokenIdentityCache tokenIdentities,
+        SnapshotStore snapshotStore,
+        ProfileRequestTracker requestTracker,
+        EncodedBodyCache encodedBodies,
+        RateLimitScheduler rateLimitScheduler,
+        GitHubMetrics metrics,
+        GitHubCacheProperties cacheProperties,
+        @Qualifier("cacheRefreshExecutor") ExecutorService cacheRefreshExecutor
     ) {
-        this.restClient = restClientBuilder.build();
+        this.restClient = restClientBuilder
+                .requestInterceptor(rateLimitScheduler.interceptor())
+                .requestInterceptor(metrics.interceptor())
+                // Users, repos and events are decoded by streaming only the fields we map
+                .messageConverters(converters -> converters.add(0,
+                        new GitHubJsonHttpMessageConverter(new GitHubJsonDecoder())))
+                .build();
         this.graphQlClient = graphQlClient;
+        this.conditionalCache = conditionalCache;
+        this.paginator = paginator;
+        this.tokenIdentities = tokenIdentities;
+        this.snapshotStore = snapshotStore;
+        this.requestTracker = requestTracker;
+        this.encodedBodies = encodedBodies;
+        // Response bodies are encoded as each value is loaded, so reads only copy bytes
+        this.userCache = new ResponseCache<>("users", cacheProperties.getUsers(), cacheRefreshExecutor,
+                user -> 1, username -> encoded(fetchPublicUserInfo(username)));
+        this.repoCache = new ResponseCache<>("repos", cacheProperties.getRepos(), cacheRefreshExecutor,
+                List::size, username -> encoded(fetchPublicRepos(username)));
+        this.eventCache = new ResponseCache<>("events", cacheProperties.getEvents(), cacheRefreshExecutor,
+                EventColumns::size, username -> {
+                    EventColumns events = fetchPublicEvents(username);
+                    encodedBodies.prime(events, events::toEvents);
+                    return events;
+                });
+        for (ResponseCache<?, ?> cache : List.of(userCache, repoCache, eventCache)) {
+            metrics.monitor(cache);
+        }
+        metrics.monitor(conditionalCache);
     }
 
+    // Cached lookups; usernames are case-insensitive on GitHub
     public GitHubUserDTO getPublicUserInfo(String username) {
+        requestTracker.record(username);
+        return userCache.get(cacheKey(username));
+    }
+
+    public List<GitHubRepoDTO> getPublicRepos(String username) {
+        requestTracker.record(username);
+        return repoCache.get(cacheKey(username));
+    }
+
+    public List<GitHubEventDTO> getPublicEvents(String username) {
+        return getPublicEventColumns(username).toEvents();
+    }
+
+    // Events are cached in columnar form; aggregations should read them directly
+    public EventColumns getPublicEventColumns(String username) {
+        requestTracker.record(username);
+        return eventCache.get(cacheKey(username));
+    }
+
+    // The same cached lookups without counting towards the hot-profile ranking, for bulk callers
+    // (a comparison of hundreds of users should not decide which profiles get refreshed)
+    public GitHubUserDTO getPublicUserInfoUntracked(String username) {
+        return userCache.get(cacheKey(username));
+    }
+
+    public List<GitHubRepoDTO> getPublicReposUntracked(String username) {
+        return repoCache.get(cacheKey(username));
+    }
+
+    public EventColumns getPublicEventColumnsUntracked(String username) {
+        return eventCache.get(cacheKey(username));
+    }
+
+    // Non-blocking lookups for the reactive endpoints: the cached value (or the load in flight), null on a miss
+    public CompletableFuture<GitHubUserDTO> getCachedPublicUserInfo(String username) {
+        requestTracker.record(username);
+        return userCache.getIfPresent(cacheKey(username));
+    }
+
+    public CompletableFuture<List<GitHubRepoDTO>> getCachedPublicRepos(String username) {
+        requestTracker.record(username);
+        return repoCache.getIfPresent(cacheKey(username));
+    }
+
+    public CompletableFuture<EventColumns> getCachedPublicEventColumns(String username) {
+        requestTracker.record(username);
+        return eventCache.getIfPresent(cacheKey(username));
+    }
+
+    // Values the reactive endpoints fetched themselves, shared with every other reader
+    public void cachePublicUserInfo(String username, GitHubUserDTO user) {
+        userCache.put(cacheKey(username), user);
+    }
+
+    public void cachePublicRepos(String username, List<GitHubRepoDTO> repos) {
+        repoCache.put(cacheKey(username), List.copyOf(repos));
+    }
+
+    public void cachePublicEventColumns(String username, EventColumns events) {
+        eventCache.put(cacheKey(username), events);
+    }
+
+    // The same data as ready-to-send JSON (plus compressed versions)
+    public EncodedBodyCache.EncodedBody getPublicUserInfoBody(String username) {
+        GitHubUserDTO user = getPublicUserInfo(username);
+        return encodedBodies.get(user, () -> user);
+    }
+
+    public EncodedBodyCache.EncodedBody getPublicReposBody(String username) {
+        List<GitHubRepoDTO> repos = getPublicRepos(username);
+        return encodedBodies.get(repos, () -> repos);
+    }
+
+    public EncodedBodyCache.EncodedBody getPublicEventsBody(String username) {
+        EventColumns events = getPublicEventColumns(username);
+        return encodedBodies.get(events, events::toEvents);
+    }
+
+    private <T> T encoded(T value) {
+        encodedBodies.prime(value, () -> value);
+        return value;
+    }
+
+    // Background reload of everything cached for a profile
+    public void refreshPublicProfile(String username) {
+        String key = cacheKey(username);
+        userCache.refresh(key);
+        repoCache.refresh(key);
+        eventCache.refresh(key);
+    }
+
+    public Map<String, Map<String, Object>> getCacheStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for (ResponseCache<?, ?> cache : List.of(userCache, repoCache, eventCache)) {
+            stats.put(cache.getName(), cache.stats());
+        }
+        stats.put("conditional", conditionalCache.stats());
+        stats.put("singleFlight", inFlightRequests.stats());
+        stats.put("tokenIdentities", tokenIdentities.stats());
+        stats.put("snapshots", snapshotStore.stats());
+        stats.put("encodedBodies", encodedBodies.stats());
+        return stats;
+    }
+
+    // Seeds the caches from persisted snapshots after a restart. The values keep the age they had
+    // when saved, so they expire and refresh on their original schedule; false if already expired
+    public boolean warmPublicUserInfo(String username, GitHubUserDTO user, long savedAtMillis) {
+        return userCache.putSaved(cacheKey(username), user, savedAtMillis);
+    }
+
+    public boolean warmPublicRepos(String username, List<GitHubRepoDTO> repos, long savedAtMillis) {
+        return repoCache.putSaved(cacheKey(username), List.copyOf(repos), savedAtMillis);
+    }
+
+    private static String cacheKey(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private GitHubUserDTO fetchPublicUserInfo(String username) {
         String url = githubApiBaseUrl + "/users/" + username;
         try {
-            return restClient.get()
-                    .uri(url)
-                    // Consider adding an Accept header for the specific API version if needed
-                    // .header("Accept", "application/vnd.github.v3+json")
-                    .retrieve()
-                    .body(GitHubUserDTO.class);
+            GitHubUserDTO user = conditionalGet(url, null, new ParameterizedTypeReference<GitHubUserDTO>() {});
+            if (user != null) {
+                snapshotStore.putUser(username, user);
+            }
+            return user;
+        } catch (RateLimitExceededException e) {
+            throw e;
         } catch (Exception e) {
-            // Handle exceptions appropriately (e.g., user not found, API rate limit)
-            // For now, rethrow or return null/Optional.empty()
-            // Consider logging the error
-            System.err.println("Error fetching user info for " + username + ": " + e.getMessage());
-            // You might want to throw a custom exception here
+            log.warn("Error fetching user info for {}: {}", username, e.getMessage());
             throw new RuntimeException("Failed to fetch user info from GitHub", e);
         }
     }
 
-    public List<GitHubRepoDTO> getPublicRepos(String username) {
+    private List<GitHubRepoDTO> fetchPublicRepos(String username) {
         String url = githubApiBaseUrl + "/users/" + username + "/repos?per_page=100";
         // You might also want to add sorting, e.g., &sort=updated or &sort=pushed
         try {
-            List<GitHubRepoDTO> repos = restClient.get()
-                    .uri(url)
-                    .retrieve()
-                    .body(new ParameterizedTypeReference<List<GitHubRepoDTO>>() {});
-            return repos != null ? repos : List.of();
+            List<GitHubRepoDTO> repos = getAllPages(url, null, new ParameterizedTypeReference<List<GitHubRepoDTO>>() {});
+            List<GitHubRepoDTO> result = repos != null ? List.copyOf(repos) : List.of();
+            snapshotStore.putRepos(username, result);
+            return result;
+        } catch (RateLimitExceededException e) {
+            throw e;
         } catch (Exception e) {
-            System.err.println("Error fetching repos for " + username + ": " + e.getMessage());
+            log.warn("Error fetching repos for {}: {}", username, e.getMessage());
             throw new RuntimeException("Failed to fetch repos from GitHub", e);
         }
     }
 
-    public List<GitHubEventDTO> getPublicEvents(String username) {
-        // API defaults to 30 events, max 100 per page
+    private EventColumns fetchPublicEvents(String username) {
+        // API defaults to 30 events, max 100 per page and 300 events in total
         String url = githubApiBaseUrl + "/users/" + username + "/events/public?per_page=100";
         try {
-            List<GitHubEventDTO> events = restClient.get()
-                    .uri(url)
-                    .retrieve()
-                    .body(new ParameterizedTypeReference<List<GitHubEventDTO>>() {});
-            return events != null ? events : List.of();
+            // Pages are kept for revalidation in columnar form too, so no event DTOs outlive the decoding
+            List<EventColumns> pages = getAllPageBodies(url, null,
+                    new ParameterizedTypeReference<List<GitHubEventDTO>>() {}, EventColumns::of);
+            return EventColumns.concat(pages);
+        } catch (RateLimitExceededException e) {
+            throw e;
         } catch (Exception e) {
-            System.err.println("Error fetching public events for " + username + ": " + e.getMessage());
-            // Consider logging and returning empty list or throwing
+            log.warn("Error fetching public events for {}: {}", username, e.getMessage());
             throw new RuntimeException("Failed to fetch public events from GitHub", e);
         }
     }
 
+    // Sends the stored ETag / Last-Modified validators for this URL (if any) and, when
+    // GitHub answers 304, returns the previously decoded body without reading the response.
+    private <T> T conditionalGet(String url, String token, ParameterizedTypeReference<T> type) {
+        return conditionalExchange(url, token, type).body();
+    }
+
+    private <T> ConditionalRequestCache.Validated<T> conditionalExchange(
+            String url, String token, ParameterizedTypeReference<T> type) {
+        return conditionalExchange(url, token, type, Function.identity());
+    }
+
+    // Identical concurrent requests (same URL and token identity) share one upstream call.
+    // The decoded body is converted with compact before it is cached (and returned).
+    @SuppressWarnings("unchecked")
+    private <T, B> ConditionalRequestCache.Validated<B> conditionalExchange(
+            String url, String token, ParameterizedTypeReference<T> type, Function<? super T, ? extends B> compact) {
+        String key = ConditionalRequestCache.key(url, token);
+        return (ConditionalRequestCache.Validated<B>) inFlightRequests.execute(key,
+                () -> revalidate(key, url, token, type, compact));
+    }
+
+    private <T, B> ConditionalRequestCache.Validated<B> revalidate(
+            String key, String url, String token, ParameterizedTypeReference<T> type, Function<? super T, ? extends B> compact) {
+        ConditionalRequestCache.Validated<B> cached = conditionalCache.get(key);
+        ResponseEntity<T> response;
+        try {
+            response = restClient.get()
+                    .uri(url)
+                    .headers(headers -> {
+                        if (token != null) {
+                            headers.setBearerAuth(token);
+                            headers.set(HttpHeaders.USER_AGENT, "GitStatsApp");
+                        }
+                        if (cached != null && cached.etag() != null) {
+                            headers.setIfNoneMatch(cached.etag());
+                        } else if (cached != null) {
+                            headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+                        }
+                    })
+                    .retrieve()
+                    .toEntity(type);
+        } catch (HttpClientErrorException.Unauthorized e) {
+            if (token != null) {
+                tokenIdentities.invalidate(token);
+            }
+            throw e;
+        }
+        if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+            conditionalCache.recordNotModified();
+            return cached;
+        }
+        conditionalCache.recordModified();
+        HttpHeaders responseHeaders = response.getHeaders();
+        T body = response.getBody();
+        ConditionalRequestCache.Validated<B> fresh = new ConditionalRequestCache.Validated<>(
+                responseHeaders.getETag(),
+                responseHeaders.getFirst(HttpHeaders.LAST_MODIFIED),
+                responseHeaders.getFirst(HttpHeaders.LINK),
+                body != null ? compact.apply(body) : null);
+        conditionalCache.put(key, fresh);
+        return fresh;
+    }
+
+    // Loads every page of a list endpoint (url must already carry a query string)
+    private <T> List<T> getAllPages(String url, String token, ParameterizedTypeReference<List<T>> type) {
+        // Pages run on pool threads, so carry the caller's priority over explicitly
+        RequestPriority priority = RequestPriority.current();
+        return paginator.fetchAll(page -> priority.call(() -> {
+            ConditionalRequestCache.Validated<List<T>> response =
+                    conditionalExchange(url + "&page=" + page, token, type);
+            return new GitHubPaginator.Page<>(response.body(), response.link());
+        }));
+    }
+
+    // Like getAllPages, but each page is converted with compact and kept as one element
+    private <T, B> List<B> getAllPageBodies(String url, String token, ParameterizedTypeReference<T> type,
+                                            Function<? super T, ? extends B> compact) {
+        RequestPriority priority = RequestPriority.current();
+        return paginator.fetchAll(page -> priority.call(() -> {
+            ConditionalRequestCache.Validated<B> response =
+                    conditionalExchange(url + "&page=" + page, token, type, compact);
+            B body = response.body();
+            List<B> items = body != null ? List.of(body) : List.of();
+            return new GitHubPaginator.Page<>(items, response.link());
+        }));
+    }
+
     // Helper method to calculate language statistics
     public Map<String, Long> calculateLanguageStats(List<GitHubRepoDTO> repos) {
+        return countLanguages(repos);
+    }
+
+    // Stateless so it can be benchmarked without a running context
+    static Map<String, Long> countLanguages(List<GitHubRepoDTO> repos) {
         if (repos == null || repos.isEmpty()) {
             return Map.of();
         }
@@ -102,18 +376,35 @@ public class GitHubService {
         return calculateLanguageStats(repos);
     }
 
+    // Bytes of code per language for one repository (owner/name); revalidated with the stored ETag
+    public Map<String, Long> getRepoLanguages(String fullName, String token) {
+        String url = githubApiBaseUrl + "/repos/" + fullName + "/languages";
+        Map<String, Long> languages = conditionalGet(url, token, new ParameterizedTypeReference<Map<String, Long>>() {});
+        return languages != null ? languages : Map.of();
+    }
+
     public GitHubUserDTO getAuthenticatedUserInfo(String token) {
+        return tokenIdentities.get(token, this::fetchAuthenticatedUserInfo);
+    }
+
+    // Login of the token's owner, resolved through the token identity cache
+    public String getAuthenticatedLogin(String token) {
+        GitHubUserDTO user = getAuthenticatedUserInfo(token);
+        String username = user != null ? user.getLogin() : null;
+        if (username == null) {
+            throw new IllegalStateException("Could not extract username from authenticated user info");
+        }
+        return username;
+    }
+
+    private GitHubUserDTO fetchAuthenticatedUserInfo(String token) {
         String url = githubApiBaseUrl + "/user";
         try {
-            return restClient.get()
-                    .uri(url)
-                    .header("Authorization", "Bearer " + token)
-                    .header("User-Agent", "GitStatsApp")
-                    .retrieve()
-                    .body(GitHubUserDTO.class);
+            return conditionalGet(url, token, new ParameterizedTypeReference<GitHubUserDTO>() {});
+        } catch (RateLimitExceededException e) {
+            throw e;
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Error fetching authenticated user info: " + e.getMessage());
+            log.warn("Error fetching authenticated user info", e);
             throw new RuntimeException("Failed to fetch authenticated user info from GitHub", e);
         }
     }
@@ -121,48 +412,40 @@ public class GitHubService {
     public List<GitHubRepoDTO> getAuthenticatedUserRepos(String token) {
         String url = githubApiBaseUrl + "/user/repos?per_page=100&affiliation=owner,collaborator";
         try {
-            List<GitHubRepoDTO> repos = restClient.get()
-                    .uri(url)
-                    .header("Authorization", "Bearer " + token)
-                    .header("User-Agent", "GitStatsApp")
-                    .retrieve()
-                    .body(new ParameterizedTypeReference<List<GitHubRepoDTO>>() {});
-            return repos != null ? repos : List.of();
+            List<GitHubRepoDTO> repos = getAllPages(url, token, new ParameterizedTypeReference<List<GitHubRepoDTO>>() {});
+            return repos != null ? List.copyOf(repos) : List.of();
+        } catch (RateLimitExceededException e) {
+            throw e;
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Error fetching authenticated user repos: " + e.getMessage());
+            log.warn("Error fetching authenticated user repos", e);
             throw new RuntimeException("Failed to fetch authenticated user repos from GitHub", e);
         }
     }
 
     public List<GitHubEventDTO> getAuthenticatedUserEvents(String token) {
-        GitHubUserDTO user = getAuthenticatedUserInfo(token);
-        String username = user.getLogin();
-        if (username == null) {
-            throw new IllegalStateException("Could not extract username from authenticated user info");
-        }
+        String username = getAuthenticatedLogin(token);
         String url = githubApiBaseUrl + "/users/" + username + "/events?per_page=100";
         try {
-            List<GitHubEventDTO> events = restClient.get()
-                    .uri(url)
-                    .header("Authorization", "Bearer " + token)
-                    .header("User-Agent", "GitStatsApp")
-                    .retrieve()
-                    .body(new ParameterizedTypeReference<List<GitHubEventDTO>>() {});
-            return events != null ? events : List.of();
+            List<GitHubEventDTO> events = getAllPages(url, token, new ParameterizedTypeReference<List<GitHubEventDTO>>() {});
+            return events != null ? List.copyOf(events) : List.of();
+        } catch (RateLimitExceededException e) {
+            throw e;
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Error fetching authenticated user events: " + e.getMessage());
+            log.warn("Error fetching authenticated user events", e);
             throw new RuntimeException("Failed to fetch authenticated user events from GitHub", e);
         }
     }
 
     public Object getContributionData(String token) {
-        GitHubUserDTO user = getAuthenticatedUserInfo(token);
-        String username = user.getLogin();
-        if (username == null) {
-            throw new IllegalStateException("Could not extract username from authenticated user info");
-        }
+        return queryContributions(token, Object.class);
+    }
+
+    public ContributionsCollectionDTO getContributionCollection(String token) {
+        return queryContributions(token, ContributionsCollectionDTO.class);
+    }
+
+    private <T> T queryContributions(String token, Class<T> type) {
+        String username = getAuthenticatedLogin(token);
         OffsetDateTime to = OffsetDateTime.now(ZoneOffset.UTC);
         OffsetDateTime from = to.minusDays(365);
         Map<String, Object> variables = Map.of(
@@ -179,12 +462,17 @@ public class GitHubService {
                     .documentName("contributions")
                     .variables(variables)
                     .retrieve("user.contributionsCollection")
-                    .toEntity(Object.class)
+                    .toEntity(type)
                     .block();
+        } catch (RateLimitExceededException e) {
+            throw e;
+        } catch (WebClientResponseException.Unauthorized e) {
+            tokenIdentities.invalidate(token);
+            log.warn("Error fetching contribution data: {}", e.getMessage());
+            throw new RuntimeException("Failed to fetch contribution data from GitHub", e);
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Error fetching contribution data: " + e.getMessage());
+            log.warn("Error fetching contribution data", e);
             throw new RuntimeException("Failed to fetch contribution data from GitHub", e);
         }
     }
-} 
\ No newline at end of file
+}
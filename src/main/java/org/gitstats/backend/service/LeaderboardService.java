@@ -0,0 +1,226 @@
+package org.gitstats.backend.service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+import org.gitstats.backend.dto.GitHubRepoDTO;
+import org.gitstats.backend.dto.GitHubUserDTO;
+import org.gitstats.backend.dto.LeaderboardDTO;
+import org.gitstats.backend.dto.UserSummaryDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Friends comparison / class leaderboard. Profiles, repos and events for many
+ * users are fetched by a bounded number of workers per comparison, and all
+ * comparisons together look up at most github.compare.threads users at a time;
+ * each user's summary is handed to the caller as soon as it is ready, and
+ * rankings are kept in top-K heaps. The lookups run at the caller's priority, so
+ * the shared rate-limit budget paces them like any other request, and are not
+ * counted as profile requests.
+ */
+@Service
+public class LeaderboardService {
+
+    private final GitHubService gitHubService;
+    private final ExecutorService compareExecutor;
+    private final int concurrency;
+    private final int maxUsers;
+    // The compare executor bounds nothing when it runs virtual threads
+    private final Semaphore lookups;
+
+    public LeaderboardService(
+        GitHubService gitHubService,
+        @Qualifier("compareExecutor") ExecutorService compareExecutor,
+        @Value("${github.compare.concurrency:8}") int concurrency,
+        @Value("${github.compare.max-users:300}") int maxUsers,
+        @Value("${github.compare.threads:32}") int maxLookups
+    ) {
+        this.gitHubService = gitHubService;
+        this.compareExecutor = compareExecutor;
+        this.concurrency = Math.max(1, concurrency);
+        this.maxUsers = maxUsers;
+        this.lookups = new Semaphore(Math.max(1, maxLookups));
+    }
+
+    public int getMaxUsers() {
+        return maxUsers;
+    }
+
+    /**
+     * Starts the comparison and returns immediately. {@code onUser} is called once per
+     * user as results arrive (from worker threads, one at a time); the future completes
+     * with the rankings once every user is done. Cancelling the future, or {@code onUser}
+     * throwing (the client went away), stops the workers before their next user.
+     */
+    public CompletableFuture<LeaderboardDTO> compare(List<String> usernames, int topK, Consumer<UserSummaryDTO> onUser) {
+        List<String> logins = distinct(usernames);
+        Rankings rankings = new Rankings(topK);
+        AtomicInteger next = new AtomicInteger();
+        CompletableFuture<LeaderboardDTO> result = new CompletableFuture<>();
+        // Workers carry the priority of the request that started the comparison
+        RequestPriority priority = RequestPriority.current();
+        Runnable worker = () -> priority.call(() -> {
+            int index;
+            while (!result.isDone() && (index = next.getAndIncrement()) < logins.size()) {
+                try {
+                    lookups.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                UserSummaryDTO summary;
+                try {
+                    summary = summarize(logins.get(index));
+                } finally {
+                    lookups.release();
+                }
+                synchronized (rankings) {
+                    if (result.isDone()) {
+                        break;
+                    }
+                    rankings.add(summary);
+                    try {
+                        onUser.accept(summary);
+                    } catch (RuntimeException e) {
+                        result.completeExceptionally(e);
+                    }
+                }
+            }
+            return null;
+        });
+
+        int workers = Math.min(concurrency, Math.max(1, logins.size()));
+        CompletableFuture<?>[] running = new CompletableFuture<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            running[i] = CompletableFuture.runAsync(worker, compareExecutor);
+        }
+        CompletableFuture.allOf(running).whenComplete((done, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            synchronized (rankings) {
+                result.complete(rankings.toDTO());
+            }
+        });
+        return result;
+    }
+
+    private List<String> distinct(List<String> usernames) {
+        Set<String> seen = new LinkedHashSet<>();
+        List<String> logins = new ArrayList<>();
+        for (String username : usernames) {
+            if (username != null && !username.isBlank() && seen.add(username.trim().toLowerCase(Locale.ROOT))) {
+                logins.add(username.trim());
+            }
+            if (logins.size() == maxUsers) {
+                break;
+            }
+        }
+        return logins;
+    }
+
+    private UserSummaryDTO summarize(String login) {
+        UserSummaryDTO summary = new UserSummaryDTO();
+        summary.setLogin(login);
+        try {
+            GitHubUserDTO user = gitHubService.getPublicUserInfoUntracked(login);
+            List<GitHubRepoDTO> repos = gitHubService.getPublicReposUntracked(login);
+            EventColumns events = gitHubService.getPublicEventColumnsUntracked(login);
+            if (user != null) {
+                summary.setLogin(user.getLogin());
+                summary.setAvatarUrl(user.getAvatarUrl());
+                summary.setFollowers(user.getFollowers());
+            }
+            summary.setPublicRepos(repos.size());
+            long stars = 0;
+            long forks = 0;
+            for (GitHubRepoDTO repo : repos) {
+                stars += repo.getStargazersCount();
+                forks += repo.getForksCount();
+            }
+            summary.setStars(stars);
+            summary.setForks(forks);
+            summary.setTopLanguage(gitHubService.calculateLanguageStats(repos).entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(Map.Entry::getKey)
+                    .orElse(null));
+            summary.setRecentEvents(events.countSince(OffsetDateTime.now().minusDays(90).toEpochSecond()));
+        } catch (RuntimeException e) {
+            summary.setError(e.getMessage());
+        }
+        return summary;
+    }
+
+    // Not thread-safe; guarded by the caller
+    private static final class Rankings {
+
+        private static final Comparator<LeaderboardDTO.RankEntry> BY_VALUE =
+                Comparator.comparingLong(LeaderboardDTO.RankEntry::getValue);
+
+        private final int topK;
+        private final Map<String, TopK<LeaderboardDTO.RankEntry>> metrics = new LinkedHashMap<>();
+        private final Map<String, Long> languageUsers = new HashMap<>();
+        private int users;
+        private int failed;
+
+        Rankings(int topK) {
+            this.topK = topK;
+            metric("stars");
+            metric("forks");
+            metric("activity");
+            metric("followers");
+        }
+
+        private void metric(String name) {
+            metrics.put(name, new TopK<>(topK, BY_VALUE));
+        }
+
+        void add(UserSummaryDTO summary) {
+            users++;
+            if (summary.getError() != null) {
+                failed++;
+                return;
+            }
+            offer("stars", summary, UserSummaryDTO::getStars);
+            offer("forks", summary, UserSummaryDTO::getForks);
+            offer("activity", summary, UserSummaryDTO::getRecentEvents);
+            offer("followers", summary, UserSummaryDTO::getFollowers);
+            if (summary.getTopLanguage() != null) {
+                languageUsers.merge(summary.getTopLanguage(), 1L, Long::sum);
+            }
+        }
+
+        private void offer(String metric, UserSummaryDTO summary, ToLongFunction<UserSummaryDTO> value) {
+            metrics.get(metric).offer(new LeaderboardDTO.RankEntry(summary.getLogin(), value.applyAsLong(summary)));
+        }
+
+        LeaderboardDTO toDTO() {
+            LeaderboardDTO dto = new LeaderboardDTO();
+            dto.setUsers(users);
+            dto.setFailed(failed);
+            metrics.forEach((name, top) -> dto.getRankings().put(name, top.toList()));
+            // Most common top language across the group
+            TopK<LeaderboardDTO.RankEntry> languages = new TopK<>(topK, BY_VALUE);
+            languageUsers.forEach((language, count) -> languages.offer(new LeaderboardDTO.RankEntry(language, count)));
+            dto.getRankings().put("languages", languages.toList());
+            return dto;
+        }
+    }
+}
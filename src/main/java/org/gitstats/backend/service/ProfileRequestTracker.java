@@ -0,0 +1,48 @@
+package org.gitstats.backend.service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Counts how often each public profile is requested. Counts are halved every
+ * decay interval so the ranking follows current rather than all-time interest.
+ */
+@Component
+public class ProfileRequestTracker {
+
+    private final Cache<String, AtomicLong> counts;
+
+    public ProfileRequestTracker(@Value("${github.refresh.max-tracked:50000}") long maxTracked) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .build();
+    }
+
+    public void record(String username) {
+        counts.get(username.toLowerCase(Locale.ROOT), key -> new AtomicLong()).incrementAndGet();
+    }
+
+    public List<String> hottest(int n) {
+        TopK<Map.Entry<String, Long>> top = new TopK<>(n, Map.Entry.comparingByValue());
+        counts.asMap().forEach((username, count) -> top.offer(Map.entry(username, count.get())));
+        return top.toList().stream().map(Map.Entry::getKey).toList();
+    }
+
+    public long size() {
+        return counts.estimatedSize();
+    }
+
+    @Scheduled(fixedDelayString = "${github.refresh.decay-interval:1h}")
+    public void decay() {
+        counts.asMap().entrySet().removeIf(entry -> entry.getValue().updateAndGet(count -> count / 2) == 0);
+    }
+}
@@ -0,0 +1,107 @@
+package org.gitstats.backend.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.gitstats.backend.dto.GitHubEventDTO;
+import org.gitstats.backend.dto.GitHubProfileDTO;
+import org.gitstats.backend.dto.GitHubRepoDTO;
+import org.gitstats.backend.dto.GitHubUserDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Builds the whole dashboard document in one request: user, repos and events are
+ * fetched in parallel and languages are derived from the repos already loaded.
+ * A part that fails or misses the deadline is reported in errors instead of
+ * failing the whole profile. Every part is a load shared through the response
+ * caches (other requests may be waiting on it), so a part that misses the deadline
+ * is not interrupted: it finishes in the background and fills the cache for the
+ * next request, while this one returns without it.
+ */
+@Service
+public class ProfileService {
+
+    private final GitHubService gitHubService;
+    private final ExecutorService profileExecutor;
+    private final Duration timeout;
+
+    public ProfileService(
+        GitHubService gitHubService,
+        @Qualifier("profileExecutor") ExecutorService profileExecutor,
+        @Value("${github.profile.timeout:5s}") Duration timeout
+    ) {
+        this.gitHubService = gitHubService;
+        this.profileExecutor = profileExecutor;
+        this.timeout = timeout;
+    }
+
+    public GitHubProfileDTO getProfile(String username) {
+        GitHubProfileDTO profile = new GitHubProfileDTO();
+
+        CompletableFuture<GitHubUserDTO> user = fetch(() -> gitHubService.getPublicUserInfo(username));
+        CompletableFuture<List<GitHubRepoDTO>> repos = fetch(() -> gitHubService.getPublicRepos(username));
+        CompletableFuture<List<GitHubEventDTO>> events = fetch(() -> gitHubService.getPublicEvents(username));
+        CompletableFuture<Map<String, Long>> languages = repos.thenApply(gitHubService::calculateLanguageStats);
+
+        CompletableFuture.allOf(
+                collect(user, profile::setUser, "user", profile),
+                collect(repos, profile::setRepos, "repos", profile),
+                collect(languages, profile::setLanguages, "languages", profile),
+                collect(events, profile::setEvents, "events", profile)
+        ).join();
+        return profile;
+    }
+
+    private <T> CompletableFuture<T> fetch(Supplier<T> supplier) {
+        CompletableFuture<T> part = new CompletableFuture<>();
+        Future<?> task = profileExecutor.submit(() -> {
+            try {
+                part.complete(supplier.get());
+            } catch (RuntimeException | Error e) {
+                part.completeExceptionally(e);
+            }
+        });
+        // At the deadline a part still queued is dropped; one already running is left to finish,
+        // since interrupting it would fail the shared load for every caller joined on it
+        return part.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((value, error) -> {
+                    if (error instanceof TimeoutException) {
+                        task.cancel(false);
+                    }
+                });
+    }
+
+    // Never completes exceptionally: a failed part is recorded in the profile's errors
+    private <T> CompletableFuture<Void> collect(CompletableFuture<T> part, Consumer<T> setter,
+                                                String name, GitHubProfileDTO profile) {
+        return part.handle((value, error) -> {
+            synchronized (profile) {
+                if (error == null) {
+                    setter.accept(value);
+                } else {
+                    profile.getErrors().put(name, describe(error));
+                }
+            }
+            return null;
+        });
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            return "Timed out fetching data from GitHub";
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
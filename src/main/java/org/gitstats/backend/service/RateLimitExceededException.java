@@ -0,0 +1,30 @@
+package org.gitstats.backend.service;
+
+/**
+ * Thrown instead of calling GitHub when the rate-limit budget for the caller's
+ * pool is exhausted (or reserved for interactive traffic).
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+    private final boolean shed;
+
+    public RateLimitExceededException(String message, long retryAfterMillis) {
+        this(message, retryAfterMillis, false);
+    }
+
+    // shed: refused only because the call ran at background priority
+    public RateLimitExceededException(String message, long retryAfterMillis, boolean shed) {
+        super(message);
+        this.retryAfterSeconds = Math.max(1, (retryAfterMillis + 999) / 1000);
+        this.shed = shed;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public boolean isShed() {
+        return shed;
+    }
+}
@@ -0,0 +1,285 @@
+package org.gitstats.backend.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Paces outbound GitHub calls against the rate-limit headers GitHub sends back.
+ * There is one budget per pool: the unauthenticated (per IP) pool and each OAuth
+ * token, separately for the REST ("core") and GraphQL resources.
+ *
+ * Before a call: if the pool is locked out (remaining == 0 or Retry-After),
+ * interactive calls wait up to max-wait and background calls are shed. Background
+ * calls are also shed once remaining drops into the reserved share. Once remaining
+ * drops below pace-below, calls are spaced evenly until the reset so the budget
+ * never hits zero in a burst.
+ */
+@Component
+public class RateLimitScheduler {
+
+    private final Cache<String, Budget> budgets = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofHours(2))
+            .build();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private final long maxWaitMillis;
+    private final double backgroundReserve;
+    private final double paceBelow;
+
+    public RateLimitScheduler(
+        @Value("${github.rate-limit.max-wait:2s}") Duration maxWait,
+        @Value("${github.rate-limit.background-reserve:0.2}") double backgroundReserve,
+        @Value("${github.rate-limit.pace-below:0.25}") double paceBelow
+    ) {
+        this.maxWaitMillis = maxWait.toMillis();
+        this.backgroundReserve = backgroundReserve;
+        this.paceBelow = paceBelow;
+    }
+
+    // For RestClient: blocks the calling thread while the call is paced
+    public ClientHttpRequestInterceptor interceptor() {
+        return (request, body, execution) -> {
+            String pool = pool(request.getHeaders(), request.getURI().getPath());
+            long wait = reserve(pool, RequestPriority.current());
+            if (wait > 0) {
+                sleep(wait);
+            }
+            ClientHttpResponse response = execution.execute(request, body);
+            update(pool, response.getStatusCode().value(), response.getHeaders());
+            return response;
+        };
+    }
+
+    // For WebClient / GraphQL: delays the subscription instead of blocking. The priority comes
+    // from the subscriber's Reactor context, as no thread-local survives the thread hops.
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> Mono.deferContextual(context -> {
+            String pool = pool(request.headers(), request.url().getPath());
+            long wait = reserve(pool, RequestPriority.of(context));
+            Mono<ClientResponse> call = next.exchange(request)
+                    .doOnNext(response -> update(pool, response.statusCode().value(), response.headers().asHttpHeaders()));
+            return wait > 0 ? Mono.delay(Duration.ofMillis(wait)).then(call) : call;
+        });
+    }
+
+    /**
+     * Claims one call from the pool's budget.
+     *
+     * @return how long the caller has to wait before sending, in milliseconds
+     * @throws RateLimitExceededException if the call is shed or would wait too long
+     */
+    public long reserve(String pool, RequestPriority priority) {
+        Budget budget = budgets.get(pool, key -> new Budget());
+        long now = System.currentTimeMillis();
+        synchronized (budget) {
+            boolean known = budget.remaining >= 0 && budget.resetAtMillis > now;
+            long wait = 0;
+            if (budget.blockedUntilMillis > now) {
+                wait = budget.blockedUntilMillis - now;
+            } else if (known && budget.remaining <= 0) {
+                wait = budget.resetAtMillis - now;
+            }
+
+            if (priority == RequestPriority.BACKGROUND
+                    && (wait > 0 || (known && budget.remaining <= budget.limit * backgroundReserve))) {
+                shed.increment();
+                throw new RateLimitExceededException("GitHub rate-limit budget reserved for interactive requests",
+                        Math.max(wait, budget.resetAtMillis - now), true);
+            }
+
+            if (known && budget.remaining > 0 && budget.remaining < budget.limit * paceBelow) {
+                long interval = (budget.resetAtMillis - now) / budget.remaining;
+                long slot = Math.max(now + wait, budget.nextSlotMillis);
+                wait = slot - now;
+                if (wait <= maxWaitMillis) {
+                    budget.nextSlotMillis = slot + interval;
+                }
+            }
+
+            if (wait > maxWaitMillis) {
+                rejected.increment();
+                throw new RateLimitExceededException("GitHub rate limit exhausted, retry later", wait);
+            }
+            if (known) {
+                // Count the call now so concurrent callers don't all spend the last unit
+                budget.remaining--;
+            }
+            if (wait > 0) {
+                delayed.increment();
+            }
+            return wait;
+        }
+    }
+
+    public void update(String pool, int status, HttpHeaders headers) {
+        Budget budget = budgets.get(pool, key -> new Budget());
+        long now = System.currentTimeMillis();
+        synchronized (budget) {
+            Integer limit = intHeader(headers, "X-RateLimit-Limit");
+            Integer remaining = intHeader(headers, "X-RateLimit-Remaining");
+            Integer reset = intHeader(headers, "X-RateLimit-Reset");
+            if (limit != null) {
+                budget.limit = limit;
+            }
+            if (remaining != null) {
+                budget.remaining = remaining;
+            }
+            if (reset != null) {
+                budget.resetAtMillis = reset * 1000L;
+            }
+            // Any other 403 (blocked repository, SSO, missing scope) only concerns that one call
+            if (isRateLimited(status, headers)) {
+                Integer retryAfter = intHeader(headers, HttpHeaders.RETRY_AFTER);
+                if (retryAfter != null) {
+                    budget.blockedUntilMillis = now + retryAfter * 1000L;
+                } else if (budget.resetAtMillis > now) {
+                    budget.blockedUntilMillis = budget.resetAtMillis;
+                } else {
+                    // Exhausted without a usable reset time: GitHub asks for at least a minute
+                    budget.blockedUntilMillis = now + TimeUnit.MINUTES.toMillis(1);
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("waiting", waiting.get());
+        result.put("delayed", delayed.sum());
+        result.put("shed", shed.sum());
+        result.put("rejected", rejected.sum());
+        result.put("pools", budgets.estimatedSize());
+        Map<String, Object> anonymous = new LinkedHashMap<>();
+        budgets.asMap().forEach((pool, budget) -> {
+            if (pool.startsWith(TokenFingerprint.ANONYMOUS)) {
+                synchronized (budget) {
+                    anonymous.put(pool, Map.of("remaining", budget.remaining, "limit", budget.limit));
+                }
+            }
+        });
+        result.put("anonymous", anonymous);
+        result.put("minRemaining", minRemaining());
+        return result;
+    }
+
+    // Whether background work may spend from this pool right now (true while nothing is known yet)
+    public boolean hasSpareBudget(String pool) {
+        Budget budget = budgets.getIfPresent(pool);
+        if (budget == null) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (budget) {
+            if (budget.blockedUntilMillis > now) {
+                return false;
+            }
+            boolean known = budget.remaining >= 0 && budget.resetAtMillis > now;
+            return !known || budget.remaining > budget.limit * backgroundReserve;
+        }
+    }
+
+    // Lowest known remaining budget across all pools, -1 when nothing is known yet
+    public int minRemaining() {
+        int min = -1;
+        for (Budget budget : budgets.asMap().values()) {
+            synchronized (budget) {
+                if (budget.remaining >= 0 && (min < 0 || budget.remaining < min)) {
+                    min = budget.remaining;
+                }
+            }
+        }
+        return min;
+    }
+
+    // Remaining budget of one pool, -1 when unknown
+    public int remaining(String pool) {
+        Budget budget = budgets.getIfPresent(pool);
+        if (budget == null) {
+            return -1;
+        }
+        synchronized (budget) {
+            return budget.resetAtMillis > System.currentTimeMillis() ? budget.remaining : -1;
+        }
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public long getDelayed() {
+        return delayed.sum();
+    }
+
+    public long getShed() {
+        return shed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private void sleep(long millis) {
+        waiting.incrementAndGet();
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RateLimitExceededException("Interrupted while waiting for GitHub rate-limit budget", millis);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    // A 403 / 429 is a rate limit only when GitHub says so: nothing remaining, or a Retry-After
+    static boolean isRateLimited(int status, HttpHeaders headers) {
+        return (status == 403 || status == 429)
+                && ("0".equals(headers.getFirst("X-RateLimit-Remaining")) || headers.containsKey(HttpHeaders.RETRY_AFTER));
+    }
+
+    static String pool(HttpHeaders headers, String path) {
+        String authorization = headers.getFirst(HttpHeaders.AUTHORIZATION);
+        String token = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        String resource = path != null && path.endsWith("/graphql") ? "graphql" : "core";
+        return TokenFingerprint.of(token) + ":" + resource;
+    }
+
+    private static Integer intHeader(HttpHeaders headers, String name) {
+        String value = headers.getFirst(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class Budget {
+        int limit = -1;
+        int remaining = -1;
+        long resetAtMillis;
+        long blockedUntilMillis;
+        long nextSlotMillis;
+    }
+}
@@ -0,0 +1,182 @@
+package org.gitstats.backend.service;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.gitstats.backend.dto.GitHubEventDTO;
+import org.gitstats.backend.dto.GitHubRepoDTO;
+import org.gitstats.backend.dto.GitHubUserDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.graphql.client.HttpGraphQlClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link GitHubService} built on WebClient.
+ * List endpoints emit elements as they are decoded; after the first page the
+ * remaining pages are requested concurrently and emitted in page order.
+ *
+ * Public users, repos and events read through GitHubService's response caches
+ * without blocking: a cached value (or a load already in flight) is served from
+ * memory, and a miss is fetched here and, once complete, put into the cache for
+ * every other reader. Misses do not use conditional requests, single-flight or
+ * the snapshot store, and the authenticated contributions call is not cached.
+ * Calls draw on the shared rate-limit budget, at the priority carried in the
+ * Reactor context (interactive unless set, see {@link RequestPriority#context()}).
+ */
+@Service
+public class ReactiveGitHubService {
+
+    private final WebClient webClient;
+    private final HttpGraphQlClient graphQlClient;
+    private final GitHubService gitHubService;
+    private final int pageConcurrency;
+    private final int maxPages;
+
+    @Value("${github.api.base-url:https://api.github.com}")
+    private String githubApiBaseUrl;
+
+    public ReactiveGitHubService(
+        WebClient.Builder webClientBuilder,
+        HttpGraphQlClient graphQlClient,
+        GitHubService gitHubService,
+        RateLimitScheduler rateLimitScheduler,
+        GitHubMetrics metrics,
+        @Value("${github.pagination.concurrency:8}") int pageConcurrency,
+        @Value("${github.pagination.max-pages:10}") int maxPages
+    ) {
+        this.webClient = webClientBuilder
+                .filter(rateLimitScheduler.filter())
+                .filter(metrics.filter())
+                .build();
+        this.graphQlClient = graphQlClient;
+        this.gitHubService = gitHubService;
+        this.pageConcurrency = Math.max(1, pageConcurrency);
+        this.maxPages = Math.max(1, maxPages);
+    }
+
+    public Mono<GitHubUserDTO> getPublicUserInfo(String username) {
+        return Mono.defer(() -> {
+            CompletableFuture<GitHubUserDTO> cached = gitHubService.getCachedPublicUserInfo(username);
+            if (cached != null) {
+                return cached(cached);
+            }
+            return get(githubApiBaseUrl + "/users/" + username, null)
+                    .retrieve()
+                    .bodyToMono(GitHubUserDTO.class)
+                    .doOnNext(user -> gitHubService.cachePublicUserInfo(username, user));
+        });
+    }
+
+    // The Mono fails (404, 429...) or emits once the first page's status is in; the Flux then streams the elements
+    public Mono<Flux<GitHubRepoDTO>> getPublicRepos(String username) {
+        return Mono.defer(() -> {
+            CompletableFuture<List<GitHubRepoDTO>> cached = gitHubService.getCachedPublicRepos(username);
+            if (cached != null) {
+                return cached(cached).map(Flux::fromIterable);
+            }
+            return getAllPages(githubApiBaseUrl + "/users/" + username + "/repos?per_page=100", null, GitHubRepoDTO.class)
+                    .map(repos -> cacheOnComplete(repos, list -> gitHubService.cachePublicRepos(username, list)));
+        });
+    }
+
+    public Mono<Flux<GitHubEventDTO>> getPublicEvents(String username) {
+        return Mono.defer(() -> {
+            CompletableFuture<EventColumns> cached = gitHubService.getCachedPublicEventColumns(username);
+            if (cached != null) {
+                return cached(cached).map(events -> Flux.fromIterable(events.toEvents()));
+            }
+            return getAllPages(githubApiBaseUrl + "/users/" + username + "/events/public?per_page=100", null, GitHubEventDTO.class)
+                    .map(events -> cacheOnComplete(events,
+                            list -> gitHubService.cachePublicEventColumns(username, EventColumns.of(list))));
+        });
+    }
+
+    // A client going away must not cancel a load other readers share
+    private static <T> Mono<T> cached(CompletableFuture<T> value) {
+        return Mono.fromFuture(value, true);
+    }
+
+    // Passes the elements through and, once the stream has completed in full, hands them to cache
+    private static <T> Flux<T> cacheOnComplete(Flux<T> elements, Consumer<List<T>> cache) {
+        return Flux.defer(() -> {
+            List<T> seen = new ArrayList<>();
+            return elements.doOnNext(seen::add).doOnComplete(() -> cache.accept(seen));
+        });
+    }
+
+    public Mono<Map<String, Long>> getLanguageStats(String username) {
+        return getPublicRepos(username)
+                .flatMapMany(Function.identity())
+                .map(GitHubRepoDTO::getLanguage)
+                .filter(lang -> lang != null && !lang.isBlank())
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    }
+
+    public Mono<GitHubUserDTO> getAuthenticatedUserInfo(String token) {
+        return get(githubApiBaseUrl + "/user", token)
+                .retrieve()
+                .bodyToMono(GitHubUserDTO.class);
+    }
+
+    public Mono<Object> getContributionData(String token) {
+        return getAuthenticatedUserInfo(token)
+                .flatMap(user -> {
+                    if (user.getLogin() == null) {
+                        return Mono.<Object>error(new IllegalStateException("Could not extract username from authenticated user info"));
+                    }
+                    OffsetDateTime to = OffsetDateTime.now(ZoneOffset.UTC);
+                    OffsetDateTime from = to.minusDays(365);
+                    return graphQlClient
+                            .mutate()
+                            .header("Authorization", "Bearer " + token)
+                            .header("User-Agent", "GitStatsApp")
+                            .build()
+                            .documentName("contributions")
+                            .variables(Map.of(
+                                "username", user.getLogin(),
+                                "from", from.toString(),
+                                "to", to.toString()
+                            ))
+                            .retrieve("user.contributionsCollection")
+                            .toEntity(Object.class);
+                });
+    }
+
+    private WebClient.RequestHeadersSpec<?> get(String url, String token) {
+        return webClient.get()
+                .uri(url)
+                .headers(headers -> {
+                    if (token != null) {
+                        headers.setBearerAuth(token);
+                        headers.set(HttpHeaders.USER_AGENT, "GitStatsApp");
+                    }
+                });
+    }
+
+    // Streams page 1 while its Link header tells us how many pages follow; those are
+    // subscribed to eagerly (bounded) and merged back in page order. Errors of page 1
+    // fail the Mono, before anything is streamed, so callers can still pick a status.
+    private <T> Mono<Flux<T>> getAllPages(String url, String token, Class<T> elementType) {
+        return get(url + "&page=1", token).retrieve().toEntityFlux(elementType).map(first -> {
+            int lastPage = Math.min(GitHubPaginator.lastPage(first.getHeaders().getFirst(HttpHeaders.LINK)), maxPages);
+            Flux<Flux<T>> pages = Flux.concat(
+                    Mono.just(first.getBody()),
+                    Flux.range(2, Math.max(0, lastPage - 1))
+                            .map(page -> get(url + "&page=" + page, token).retrieve().bodyToFlux(elementType))
+            );
+            return Flux.mergeSequential(pages, pageConcurrency, 32);
+        });
+    }
+}
@@ -0,0 +1,143 @@
+package org.gitstats.backend.service;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.gitstats.backend.dto.GitHubRepoDTO;
+import org.gitstats.backend.dto.LanguageBreakdownDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Language breakdown weighted by bytes of code, from each repository's
+ * /languages endpoint. A repository's byte map is kept together with the
+ * pushed_at it was read at and reused until the repository is pushed to again,
+ * so after the first look only changed repositories cost a (conditional) call.
+ * Missing entries are fetched by a bounded number of workers per request.
+ */
+@Service
+public class RepoLanguageService {
+
+    private static final Logger log = LoggerFactory.getLogger(RepoLanguageService.class);
+
+    private final GitHubService gitHubService;
+    private final ExecutorService languageExecutor;
+    private final int concurrency;
+    private final Cache<String, RepoLanguages> byRepo;
+
+    public RepoLanguageService(
+        GitHubService gitHubService,
+        @Qualifier("languageExecutor") ExecutorService languageExecutor,
+        @Value("${github.languages.concurrency:8}") int concurrency,
+        @Value("${github.languages.max-repos:50000}") long maxRepos
+    ) {
+        this.gitHubService = gitHubService;
+        this.languageExecutor = languageExecutor;
+        this.concurrency = Math.max(1, concurrency);
+        this.byRepo = Caffeine.newBuilder()
+                .maximumSize(maxRepos)
+                .build();
+    }
+
+    public LanguageBreakdownDTO getPublicBreakdown(String username) {
+        return breakdown(username, gitHubService.getPublicRepos(username), null);
+    }
+
+    public LanguageBreakdownDTO getAuthenticatedBreakdown(String token) {
+        return breakdown(gitHubService.getAuthenticatedLogin(token), gitHubService.getAuthenticatedUserRepos(token), token);
+    }
+
+    private LanguageBreakdownDTO breakdown(String login, List<GitHubRepoDTO> repos, String token) {
+        Map<String, Long> totals = new HashMap<>();
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger fetched = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicReference<RateLimitExceededException> rateLimited = new AtomicReference<>();
+        // Private repositories are only visible to their token, so the identity is part of the key
+        String identity = TokenFingerprint.of(token);
+        // Workers run on pool threads, so carry the caller's priority over explicitly
+        RequestPriority priority = RequestPriority.current();
+        Runnable worker = () -> priority.call(() -> {
+            int index;
+            while (rateLimited.get() == null && (index = next.getAndIncrement()) < repos.size()) {
+                GitHubRepoDTO repo = repos.get(index);
+                if (repo.getFullName() == null) {
+                    continue;
+                }
+                try {
+                    Map<String, Long> languages = languages(repo, token, identity, fetched);
+                    synchronized (totals) {
+                        languages.forEach((language, bytes) -> totals.merge(language, bytes, Long::sum));
+                    }
+                } catch (RateLimitExceededException e) {
+                    // No point in spending what is left of the budget on a partial answer
+                    rateLimited.compareAndSet(null, e);
+                } catch (RuntimeException e) {
+                    log.debug("Could not read languages of {}: {}", repo.getFullName(), e.getMessage());
+                    failed.incrementAndGet();
+                }
+            }
+            return null;
+        });
+
+        int workers = Math.min(concurrency, Math.max(1, repos.size()));
+        CompletableFuture<?>[] running = new CompletableFuture<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            running[i] = CompletableFuture.runAsync(worker, languageExecutor);
+        }
+        CompletableFuture.allOf(running).join();
+        if (rateLimited.get() != null) {
+            throw rateLimited.get();
+        }
+
+        LanguageBreakdownDTO breakdown = new LanguageBreakdownDTO();
+        breakdown.setLogin(login);
+        breakdown.setRepositories(repos.size());
+        breakdown.setFetched(fetched.get());
+        breakdown.setFailed(failed.get());
+        long totalBytes = totals.values().stream().mapToLong(Long::longValue).sum();
+        Map<String, Long> bytes = new LinkedHashMap<>();
+        Map<String, Double> shares = new LinkedHashMap<>();
+        totals.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> {
+                    bytes.put(entry.getKey(), entry.getValue());
+                    shares.put(entry.getKey(), Math.round(entry.getValue() * 1000.0 / totalBytes) / 10.0);
+                });
+        breakdown.setTotalBytes(totalBytes);
+        breakdown.setBytes(bytes);
+        breakdown.setShares(shares);
+        return breakdown;
+    }
+
+    // Cached byte map while pushed_at is unchanged, otherwise a fresh (conditional) read
+    private Map<String, Long> languages(GitHubRepoDTO repo, String token, String identity, AtomicInteger fetched) {
+        String key = identity + " " + repo.getFullName().toLowerCase(Locale.ROOT);
+        RepoLanguages cached = byRepo.getIfPresent(key);
+        if (cached != null && Objects.equals(cached.pushedAt(), repo.getPushedAt())) {
+            return cached.bytes();
+        }
+        fetched.incrementAndGet();
+        Map<String, Long> languages = Map.copyOf(gitHubService.getRepoLanguages(repo.getFullName(), token));
+        byRepo.put(key, new RepoLanguages(repo.getPushedAt(), languages));
+        return languages;
+    }
+
+    private record RepoLanguages(OffsetDateTime pushedAt, Map<String, Long> bytes) {
+    }
+}
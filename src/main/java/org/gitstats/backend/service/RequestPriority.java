@@ -0,0 +1,41 @@
+package org.gitstats.backend.service;
+
+import java.util.function.Supplier;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Priority of the outbound GitHub work running on the current thread. Interactive
+ * requests may wait briefly for rate-limit budget; background work is shed first.
+ */
+public enum RequestPriority {
+    INTERACTIVE,
+    BACKGROUND;
+
+    private static final ThreadLocal<RequestPriority> CURRENT = ThreadLocal.withInitial(() -> INTERACTIVE);
+
+    public static RequestPriority current() {
+        return CURRENT.get();
+    }
+
+    // Reactive pipelines hop threads, so they carry the priority in the Reactor context:
+    // mono.contextWrite(RequestPriority.BACKGROUND.context())
+    public Context context() {
+        return Context.of(RequestPriority.class, this);
+    }
+
+    public static RequestPriority of(ContextView context) {
+        return context.getOrDefault(RequestPriority.class, INTERACTIVE);
+    }
+
+    public <T> T call(Supplier<T> work) {
+        RequestPriority previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return work.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.gitstats.backend.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import org.gitstats.backend.config.GitHubCacheProperties;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded, weight-evicted cache in front of a GitHub lookup.
+ * Entries older than refresh-after are still served while one background
+ * reload runs; entries older than expire-after are loaded synchronously.
+ * Misses load outside the cache's map lock (see {@link AsyncCaches}).
+ */
+public class ResponseCache<K, V> {
+
+    private final String name;
+    private final AsyncLoadingCache<K, V> cache;
+    private final Function<K, V> loader;
+    private final Duration refreshAfter;
+    private final Duration expireAfter;
+
+    public ResponseCache(
+        String name,
+        GitHubCacheProperties.Resource spec,
+        Executor refreshExecutor,
+        ToIntFunction<V> weigher,
+        Function<K, V> loader
+    ) {
+        this.name = name;
+        this.loader = loader;
+        this.refreshAfter = spec.getRefreshAfter();
+        this.expireAfter = spec.getExpireAfter();
+        long expireNanos = expireAfter.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(spec.getMaximumWeight())
+                .weigher((K key, V value) -> Math.max(1, weigher.applyAsInt(value)))
+                .refreshAfterWrite(spec.getRefreshAfter())
+                // expire-after counted from each write, like expireAfterWrite, but settable per
+                // entry so values restored from a snapshot keep their age (see putSaved)
+                .expireAfter(new Expiry<K, V>() {
+                    @Override
+                    public long expireAfterCreate(K key, V value, long currentTime) {
+                        return expireNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+                        return expireNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .executor(refreshExecutor)
+                .recordStats()
+                .buildAsync(new CacheLoader<K, V>() {
+                    @Override
+                    public V load(K key) {
+                        return loader.apply(key);
+                    }
+
+                    // Background refreshes yield rate-limit budget to interactive requests;
+                    // if one is shed the stale value simply stays in place
+                    @Override
+                    public V reload(K key, V oldValue) {
+                        return RequestPriority.BACKGROUND.call(() -> loader.apply(key));
+                    }
+
+                    // Only refresh() goes through the cache loader for keys that are absent or expired,
+                    // which is background work just the same (get() loads on the caller)
+                    @Override
+                    public CompletableFuture<V> asyncLoad(K key, Executor executor) {
+                        return CompletableFuture.supplyAsync(
+                                () -> RequestPriority.BACKGROUND.call(() -> loader.apply(key)), executor);
+                    }
+                });
+    }
+
+    public V get(K key) {
+        return AsyncCaches.get(cache, key, loader);
+    }
+
+    // The cached value or the load already in flight, without starting one (null on a miss); never blocks
+    public CompletableFuture<V> getIfPresent(K key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(K key, V value) {
+        cache.put(key, CompletableFuture.completedFuture(value));
+    }
+
+    /**
+     * Adds a value fetched at savedAtMillis (e.g. restored from a snapshot) with the age it
+     * already has: it expires expire-after from when it was saved, and one past refresh-after
+     * is reloaded in the background right away. Values already past expire-after are skipped.
+     *
+     * @return whether the value was added
+     */
+    public boolean putSaved(K key, V value, long savedAtMillis) {
+        Duration age = Duration.ofMillis(Math.max(0, System.currentTimeMillis() - savedAtMillis));
+        Duration remaining = expireAfter.minus(age);
+        if (remaining.isNegative() || remaining.isZero()) {
+            return false;
+        }
+        cache.synchronous().policy().expireVariably().orElseThrow().put(key, value, remaining);
+        if (age.compareTo(refreshAfter) >= 0) {
+            refresh(key);
+        }
+        return true;
+    }
+
+    // Reloads (or loads, if absent) in the background at background priority; the current value keeps being served
+    public void refresh(K key) {
+        cache.synchronous().refresh(key);
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache.synchronous(), name);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.synchronous().stats().hitRate())
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    public void invalidate(K key) {
+        cache.synchronous().invalidate(key);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.synchronous().stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.synchronous().estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("evictionWeight", stats.evictionWeight());
+        result.put("loadFailures", stats.loadFailureCount());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+}
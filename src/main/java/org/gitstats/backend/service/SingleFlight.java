@@ -0,0 +1,79 @@
+package org.gitstats.backend.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one: the first caller runs
+ * the supplier, everyone who arrives while it is still running waits for and
+ * shares its result (or its exception). The exception is not shared when the
+ * leader ran at background priority and was shed: an interactive waiter then
+ * runs the supplier again itself.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public V execute(K key, Supplier<V> supplier) {
+        while (true) {
+            CompletableFuture<V> pending = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, pending);
+            if (existing == null) {
+                return lead(key, pending, supplier);
+            }
+            coalesced.increment();
+            try {
+                return await(existing);
+            } catch (RateLimitExceededException e) {
+                if (!AsyncCaches.retryAsLeader(e)) {
+                    throw e;
+                }
+                // A background leader was shed; take over at our own priority
+                inFlight.remove(key, existing);
+            }
+        }
+    }
+
+    private V lead(K key, CompletableFuture<V> pending, Supplier<V> supplier) {
+        executed.increment();
+        try {
+            V value = supplier.get();
+            pending.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("inFlight", inFlight.size());
+        result.put("executed", executed.sum());
+        result.put("coalesced", coalesced.sum());
+        return result;
+    }
+}
@@ -0,0 +1,159 @@
+package org.gitstats.backend.service;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.gitstats.backend.dto.GitHubRepoDTO;
+import org.gitstats.backend.dto.GitHubUserDTO;
+
+/**
+ * Compact binary encoding of the snapshot payloads: var-ints for counts and
+ * numbers, length-prefixed UTF-8 for strings (with a null marker), epoch
+ * seconds for timestamps. Field order is fixed per format version.
+ */
+final class SnapshotCodec {
+
+    static final int VERSION = 2;
+
+    private SnapshotCodec() {
+    }
+
+    static void writeUser(DataOutput out, GitHubUserDTO user) throws IOException {
+        writeString(out, user.getLogin());
+        writeString(out, user.getAvatarUrl());
+        writeString(out, user.getName());
+        writeString(out, user.getBio());
+        writeTime(out, user.getCreatedAt());
+        writeVarLong(out, user.getFollowers());
+        writeVarLong(out, user.getFollowing());
+    }
+
+    static GitHubUserDTO readUser(DataInput in) throws IOException {
+        GitHubUserDTO user = new GitHubUserDTO();
+        user.setLogin(readString(in));
+        user.setAvatarUrl(readString(in));
+        user.setName(readString(in));
+        user.setBio(readString(in));
+        user.setCreatedAt(readTime(in));
+        user.setFollowers((int) readVarLong(in));
+        user.setFollowing((int) readVarLong(in));
+        return user;
+    }
+
+    static void writeRepos(DataOutput out, List<GitHubRepoDTO> repos) throws IOException {
+        writeVarLong(out, repos.size());
+        for (GitHubRepoDTO repo : repos) {
+            writeVarLong(out, repo.getId() != null ? repo.getId() + 1 : 0);
+            writeString(out, repo.getName());
+            writeString(out, repo.getFullName());
+            writeString(out, repo.getDescription());
+            writeString(out, repo.getHtmlUrl());
+            writeVarLong(out, repo.getStargazersCount());
+            writeVarLong(out, repo.getForksCount());
+            writeString(out, repo.getLanguage());
+            writeTime(out, repo.getCreatedAt());
+            writeTime(out, repo.getPushedAt());
+        }
+    }
+
+    static List<GitHubRepoDTO> readRepos(DataInput in) throws IOException {
+        int size = (int) readVarLong(in);
+        List<GitHubRepoDTO> repos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            GitHubRepoDTO repo = new GitHubRepoDTO();
+            long id = readVarLong(in);
+            repo.setId(id == 0 ? null : id - 1);
+            repo.setName(readString(in));
+            repo.setFullName(readString(in));
+            repo.setDescription(readString(in));
+            repo.setHtmlUrl(readString(in));
+            repo.setStargazersCount((int) readVarLong(in));
+            repo.setForksCount((int) readVarLong(in));
+            repo.setLanguage(readString(in));
+            repo.setCreatedAt(readTime(in));
+            repo.setPushedAt(readTime(in));
+            repos.add(repo);
+        }
+        return repos;
+    }
+
+    // Calendar: first epoch day, then the day counts
+    static void writeCalendar(DataOutput out, int startEpochDay, int[] counts) throws IOException {
+        out.writeInt(startEpochDay);
+        writeVarLong(out, counts.length);
+        for (int count : counts) {
+            writeVarLong(out, count);
+        }
+    }
+
+    static CalendarSnapshot readCalendar(DataInput in) throws IOException {
+        int startEpochDay = in.readInt();
+        int[] counts = new int[(int) readVarLong(in)];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = (int) readVarLong(in);
+        }
+        return new CalendarSnapshot(startEpochDay, counts);
+    }
+
+    record CalendarSnapshot(int startEpochDay, int[] counts) {
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        long length = readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[(int) (length - 1)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeTime(DataOutput out, OffsetDateTime time) throws IOException {
+        out.writeBoolean(time != null);
+        if (time != null) {
+            out.writeLong(time.toEpochSecond());
+        }
+    }
+
+    private static OffsetDateTime readTime(DataInput in) throws IOException {
+        return in.readBoolean() ? OffsetDateTime.ofInstant(Instant.ofEpochSecond(in.readLong()), ZoneOffset.UTC) : null;
+    }
+
+    // Unsigned LEB128; all encoded values are non-negative
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed var-int");
+    }
+}
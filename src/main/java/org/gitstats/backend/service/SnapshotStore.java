@@ -0,0 +1,419 @@
+package org.gitstats.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.gitstats.backend.dto.GitHubRepoDTO;
+import org.gitstats.backend.dto.GitHubUserDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Embedded, file-backed store for computed user data, so a restarted process
+ * starts with warm caches instead of refetching every profile from GitHub.
+ *
+ * The file is an append-only log of records:
+ *   [int length][int crc32][byte type][string key][long savedAtMillis][byte version][payload]
+ * The latest record per (type, key) wins. Records are read with positional
+ * channel reads; a torn record at the tail (crash mid-write) is cut off on open.
+ * A record whose payload equals the key's latest one is not appended again
+ * unless that one is older than rewrite-unchanged-after.
+ *
+ * The file never grows past max-bytes: appends that would cross it are dropped
+ * until the next compaction. Compaction rewrites the live records to a new file
+ * and atomically replaces the old one. It runs when superseded records make up
+ * most of the file or the file reaches three quarters of the cap; if the live
+ * records alone exceed three quarters of the cap, the oldest ones are left out.
+ *
+ * Reads share a read lock; appends, compaction and close take the write lock,
+ * so a compaction never moves a record while it is being read.
+ */
+@Component
+public class SnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotStore.class);
+
+    public enum Type {
+        // Code 3 was used for per-user language totals, which are no longer stored
+        USER(1), REPOS(2), CALENDAR(4);
+
+        final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        static Type of(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    private record Entry(long offset, int length, long savedAtMillis, int payloadCrc) {
+    }
+
+    private static final int HEADER = 8;
+
+    private final boolean enabled;
+    private final Path path;
+    private final double compactionRatio;
+    private final long maxBytes;
+    private final long rewriteUnchangedAfterMillis;
+
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private final LongAdder unchanged = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    // Guards channel, fileSize, liveBytes and the offsets in index
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private FileChannel channel;
+    private long fileSize;
+    private long liveBytes;
+
+    public SnapshotStore(
+        @Value("${github.snapshot.enabled:true}") boolean enabled,
+        @Value("${github.snapshot.path:data/gitstats-snapshots.bin}") String path,
+        @Value("${github.snapshot.compaction-ratio:2.0}") double compactionRatio,
+        @Value("${github.snapshot.max-bytes:268435456}") long maxBytes,
+        @Value("${github.snapshot.rewrite-unchanged-after:1h}") Duration rewriteUnchangedAfter
+    ) {
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.compactionRatio = compactionRatio;
+        this.maxBytes = maxBytes;
+        this.rewriteUnchangedAfterMillis = rewriteUnchangedAfter.toMillis();
+        if (enabled) {
+            try {
+                open();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open snapshot store " + path, e);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void putUser(String login, GitHubUserDTO user) {
+        append(Type.USER, login, out -> SnapshotCodec.writeUser(out, user));
+    }
+
+    public void putRepos(String login, List<GitHubRepoDTO> repos) {
+        append(Type.REPOS, login, out -> SnapshotCodec.writeRepos(out, repos));
+    }
+
+    public void putCalendar(String login, int startEpochDay, int[] counts) {
+        append(Type.CALENDAR, login, out -> SnapshotCodec.writeCalendar(out, startEpochDay, counts));
+    }
+
+    public interface Visitor {
+        void visit(Type type, String key, long savedAtMillis, DataInputStream payload) throws IOException;
+    }
+
+    /**
+     * Visits the latest record of every key saved within {@code maxAge}. Records that
+     * fail to decode are skipped. The lock is not held while the visitor runs, so
+     * appends and compaction can go on meanwhile; each record is looked up afresh.
+     */
+    public void forEachLive(Duration maxAge, Visitor visitor) {
+        if (!enabled) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - maxAge.toMillis();
+        List<String> keys;
+        lock.readLock().lock();
+        try {
+            keys = List.copyOf(index.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (String key : keys) {
+            try {
+                Record record = readLatest(key, cutoff);
+                if (record != null && record.version() == SnapshotCodec.VERSION) {
+                    visitor.visit(record.type(), record.key(), record.savedAtMillis(), record.payload());
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Skipping unreadable snapshot {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("records", index.size());
+        lock.readLock().lock();
+        try {
+            result.put("fileBytes", fileSize);
+            result.put("liveBytes", liveBytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.put("maxBytes", maxBytes);
+        result.put("unchanged", unchanged.sum());
+        result.put("dropped", dropped.sum());
+        return result;
+    }
+
+    private interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private void append(Type type, String key, PayloadWriter writer) {
+        if (!enabled || key == null) {
+            return;
+        }
+        String normalizedKey = key.toLowerCase(Locale.ROOT);
+        long now = System.currentTimeMillis();
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(type.code);
+            SnapshotCodec.writeString(out, normalizedKey);
+            out.writeLong(now);
+            out.writeByte(SnapshotCodec.VERSION);
+            out.flush();
+            int payloadStart = bytes.size();
+            writer.write(out);
+            out.flush();
+            byte[] body = bytes.toByteArray();
+            int payloadCrc = crc(body, payloadStart, body.length - payloadStart);
+
+            String indexKey = indexKey(type, normalizedKey);
+            ByteBuffer record = ByteBuffer.allocate(HEADER + body.length);
+            record.putInt(body.length).putInt(crc(body, 0, body.length)).put(body).flip();
+
+            lock.writeLock().lock();
+            try {
+                Entry latest = index.get(indexKey);
+                if (latest != null && latest.payloadCrc() == payloadCrc && latest.length() == record.limit()
+                        && now - latest.savedAtMillis() < rewriteUnchangedAfterMillis) {
+                    unchanged.increment();
+                    return;
+                }
+                long offset = fileSize;
+                if (offset + record.limit() > maxBytes) {
+                    // Full until the next compaction; the in-memory caches are unaffected
+                    dropped.increment();
+                    return;
+                }
+                while (record.hasRemaining()) {
+                    channel.write(record, offset + record.position());
+                }
+                fileSize += record.limit();
+                Entry previous = index.put(indexKey, new Entry(offset, record.limit(), now, payloadCrc));
+                liveBytes += record.limit() - (previous != null ? previous.length() : 0);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (IOException e) {
+            // The store is an optimization; losing a snapshot must not fail the request
+            log.warn("Could not write snapshot for {}: {}", key, e.getMessage());
+        }
+    }
+
+    // The key's current record, or null once it is gone (compacted away) or older than cutoff
+    private Record readLatest(String key, long cutoff) throws IOException {
+        lock.readLock().lock();
+        try {
+            Entry entry = index.get(key);
+            return entry != null && entry.savedAtMillis() >= cutoff ? decode(read(entry)) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private byte[] read(Entry entry) throws IOException {
+        return read(channel, entry.offset(), entry.length());
+    }
+
+    // Positional read of length bytes at a long offset (no mapping, so no 2 GiB limit)
+    private static byte[] read(FileChannel channel, long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException("Snapshot record at " + offset + " ends past the end of the file");
+            }
+        }
+        return buffer.array();
+    }
+
+    private static int crc(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    // type is null for a record of a type this version no longer reads
+    private record Record(Type type, String key, long savedAtMillis, int version, int payloadCrc, DataInputStream payload) {
+    }
+
+    // Parses one full record (header included); null if it is truncated or fails its checksum
+    private static Record decode(byte[] record) throws IOException {
+        if (record.length < HEADER) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (length != record.length - HEADER) {
+            return null;
+        }
+        if (crc(record, HEADER, length) != checksum) {
+            return null;
+        }
+        ByteArrayInputStream bytes = new ByteArrayInputStream(record, HEADER, length);
+        DataInputStream in = new DataInputStream(bytes);
+        Type type = Type.of(in.readByte());
+        String key = SnapshotCodec.readString(in);
+        long savedAt = in.readLong();
+        int version = in.readUnsignedByte();
+        int payloadCrc = crc(record, record.length - bytes.available(), bytes.available());
+        return new Record(type, key, savedAt, version, payloadCrc, in);
+    }
+
+    private static String indexKey(Type type, String key) {
+        return type.name() + ":" + key;
+    }
+
+    // Called from the constructor or under the write lock
+    private void open() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index.clear();
+        liveBytes = 0;
+        long size = channel.size();
+
+        long offset = 0;
+        while (offset + HEADER <= size) {
+            int length = ByteBuffer.wrap(read(channel, offset, HEADER)).getInt();
+            if (length < 0 || offset + HEADER + length > size) {
+                break;
+            }
+            byte[] record = read(channel, offset, HEADER + length);
+            Record decoded = decode(record);
+            if (decoded == null) {
+                break;
+            }
+            // Records of a retired type are intact, just no longer live; compaction drops them
+            if (decoded.type() != null) {
+                Entry previous = index.put(indexKey(decoded.type(), decoded.key()),
+                        new Entry(offset, record.length, decoded.savedAtMillis(), decoded.payloadCrc()));
+                liveBytes += record.length - (previous != null ? previous.length() : 0);
+            }
+            offset += record.length;
+        }
+        if (offset < size) {
+            log.warn("Truncating snapshot store {} at {} (torn or corrupt tail)", path, offset);
+            channel.truncate(offset);
+        }
+        fileSize = offset;
+    }
+
+    // Rewrites only the latest record per key once superseded records dominate the file or it is full.
+    // Not at startup: the first run waits one interval, after the snapshot warm has read the file.
+    @Scheduled(fixedDelayString = "${github.snapshot.compaction-interval:10m}",
+            initialDelayString = "${github.snapshot.compaction-interval:10m}")
+    public void compactIfNeeded() {
+        lock.writeLock().lock();
+        try {
+            compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compact() {
+        boolean full = fileSize >= maxBytes * 3 / 4;
+        if (!enabled || (!full && (fileSize < 1 << 20 || fileSize < liveBytes * compactionRatio))) {
+            return;
+        }
+        // Newest records first, up to three quarters of the cap; written back in file order
+        List<Entry> kept = new ArrayList<>();
+        long keptBytes = 0;
+        List<Entry> newestFirst = new ArrayList<>(index.values());
+        newestFirst.sort(Comparator.comparingLong(Entry::savedAtMillis).reversed());
+        for (Entry entry : newestFirst) {
+            if (keptBytes + entry.length() > maxBytes * 3 / 4) {
+                continue;
+            }
+            kept.add(entry);
+            keptBytes += entry.length();
+        }
+        if (kept.size() < newestFirst.size()) {
+            log.info("Snapshot store over its size budget, dropping {} oldest records", newestFirst.size() - kept.size());
+        }
+        kept.sort(Comparator.comparingLong(Entry::offset));
+
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Entry entry : kept) {
+                ByteBuffer record = ByteBuffer.wrap(read(entry));
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+            }
+            out.force(true);
+        } catch (IOException e) {
+            log.warn("Snapshot compaction failed: {}", e.getMessage());
+            return;
+        }
+        try {
+            channel.close();
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not reopen snapshot store after compaction", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (channel != null && channel.isOpen()) {
+                channel.force(true);
+                channel.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
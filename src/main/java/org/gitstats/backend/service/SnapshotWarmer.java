@@ -0,0 +1,59 @@
+package org.gitstats.backend.service;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Loads recent snapshots back into the in-memory caches once the application is up;
+// users and repos past their cache's expire-after are left out
+@Component
+public class SnapshotWarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotWarmer.class);
+
+    private final SnapshotStore snapshotStore;
+    private final GitHubService gitHubService;
+    private final ContributionAnalyticsService contributionAnalyticsService;
+    private final Duration maxAge;
+
+    public SnapshotWarmer(
+        SnapshotStore snapshotStore,
+        GitHubService gitHubService,
+        ContributionAnalyticsService contributionAnalyticsService,
+        @Value("${github.snapshot.warm-max-age:24h}") Duration maxAge
+    ) {
+        this.snapshotStore = snapshotStore;
+        this.gitHubService = gitHubService;
+        this.contributionAnalyticsService = contributionAnalyticsService;
+        this.maxAge = maxAge;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmCaches() {
+        if (!snapshotStore.isEnabled()) {
+            return;
+        }
+        int[] warmed = new int[1];
+        snapshotStore.forEachLive(maxAge, (type, key, savedAtMillis, payload) -> {
+            boolean added = switch (type) {
+                case USER -> gitHubService.warmPublicUserInfo(key, SnapshotCodec.readUser(payload), savedAtMillis);
+                case REPOS -> gitHubService.warmPublicRepos(key, SnapshotCodec.readRepos(payload), savedAtMillis);
+                // Calendar counts are merged, not served as a whole, so their age does not matter
+                case CALENDAR -> {
+                    SnapshotCodec.CalendarSnapshot calendar = SnapshotCodec.readCalendar(payload);
+                    contributionAnalyticsService.warm(key, calendar.startEpochDay(), calendar.counts());
+                    yield true;
+                }
+            };
+            if (added) {
+                warmed[0]++;
+            }
+        });
+        log.info("Warmed {} cache entries from snapshots", warmed[0]);
+    }
+}
@@ -0,0 +1,31 @@
+package org.gitstats.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Stable, non-reversible identity for a bearer token so it can be used in
+ * cache keys and metrics without ever keeping the raw token around.
+ */
+public final class TokenFingerprint {
+
+    public static final String ANONYMOUS = "anonymous";
+
+    private TokenFingerprint() {
+    }
+
+    public static String of(String token) {
+        if (token == null || token.isBlank()) {
+            return ANONYMOUS;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
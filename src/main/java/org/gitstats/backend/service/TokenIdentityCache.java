@@ -0,0 +1,56 @@
+package org.gitstats.backend.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.gitstats.backend.dto.GitHubUserDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Short-lived token -> authenticated user mapping, so the /user lookup that every
+ * authenticated endpoint needs happens once per session rather than once per call.
+ * Keyed on a token fingerprint; the raw token is never stored.
+ */
+@Component
+public class TokenIdentityCache {
+
+    private final AsyncCache<String, GitHubUserDTO> identities;
+
+    public TokenIdentityCache(
+        @Value("${github.token-identity.ttl:5m}") Duration ttl,
+        @Value("${github.token-identity.max-entries:10000}") long maxEntries
+    ) {
+        this.identities = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .recordStats()
+                .buildAsync();
+    }
+
+    // The /user call runs on the caller, outside the map lock (see AsyncCaches)
+    public GitHubUserDTO get(String token, Function<String, GitHubUserDTO> loader) {
+        return AsyncCaches.get(identities, TokenFingerprint.of(token), fingerprint -> loader.apply(token));
+    }
+
+    // Called when GitHub rejects the token (401)
+    public void invalidate(String token) {
+        identities.synchronous().invalidate(TokenFingerprint.of(token));
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = identities.synchronous().stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", identities.synchronous().estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        return result;
+    }
+}
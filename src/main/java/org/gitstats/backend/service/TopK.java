@@ -0,0 +1,40 @@
+package org.gitstats.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the k largest elements seen so far in a size-k min-heap: O(n log k)
+ * instead of sorting everything. Not thread-safe.
+ */
+public class TopK<T> {
+
+    private final int k;
+    private final Comparator<T> order;
+    private final PriorityQueue<T> heap;
+
+    public TopK(int k, Comparator<T> order) {
+        this.k = Math.max(1, k);
+        this.order = order;
+        // Grows with the elements actually offered; k may be far larger than the input
+        this.heap = new PriorityQueue<>(order);
+    }
+
+    public void offer(T element) {
+        if (heap.size() < k) {
+            heap.add(element);
+        } else if (order.compare(element, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(element);
+        }
+    }
+
+    // Best first
+    public List<T> toList() {
+        List<T> result = new ArrayList<>(heap);
+        result.sort(order.reversed());
+        return result;
+    }
+}
@@ -3,7 +3,8 @@ package org.gitstats;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Any free port for the reactive server
+@SpringBootTest(properties = "github.reactive.port=0")
 class GitStatsApplicationTests {
 
     @Test
@@ -0,0 +1,36 @@
+package org.gitstats.backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CachedResponsesTests {
+
+    private static final String ETAG = "\"abc123-gzip\"";
+
+    @Test
+    void matchesTheExactTag() {
+        assertTrue(CachedResponses.matches("\"abc123-gzip\"", ETAG));
+        assertFalse(CachedResponses.matches("\"abc123\"", ETAG));
+        assertFalse(CachedResponses.matches("\"abc123-br\"", ETAG));
+        assertFalse(CachedResponses.matches(null, ETAG));
+        assertFalse(CachedResponses.matches("", ETAG));
+    }
+
+    @Test
+    void weakComparisonIgnoresTheWeakPrefix() {
+        assertTrue(CachedResponses.matches("W/\"abc123-gzip\"", ETAG));
+    }
+
+    @Test
+    void anyTagInAListMatches() {
+        assertTrue(CachedResponses.matches("\"old\", W/\"abc123-gzip\" ,\"other\"", ETAG));
+        assertFalse(CachedResponses.matches("\"old\", \"other\"", ETAG));
+    }
+
+    @Test
+    void wildcardMatchesAnyTag() {
+        assertTrue(CachedResponses.matches("*", ETAG));
+    }
+}
@@ -0,0 +1,100 @@
+package org.gitstats.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+class AsyncCachesTests {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final AsyncCache<String, String> cache = Caffeine.newBuilder().buildAsync();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // An in-flight load another caller started (e.g. a refresh()), that tells when someone waits on it
+    private static final class Pending extends CompletableFuture<String> {
+
+        final CountDownLatch joined = new CountDownLatch(1);
+
+        @Override
+        public String join() {
+            joined.countDown();
+            return super.join();
+        }
+    }
+
+    private String load(String key) {
+        loads.incrementAndGet();
+        return key + " at " + RequestPriority.current();
+    }
+
+    private Future<String> joinInFlight(Pending pending, RequestPriority priority) throws InterruptedException {
+        cache.put("octocat", pending);
+        Future<String> waiter = executor.submit(() -> priority.call(() -> AsyncCaches.get(cache, "octocat", this::load)));
+        assertEquals(true, pending.joined.await(5, TimeUnit.SECONDS));
+        return waiter;
+    }
+
+    @Test
+    void missLoadsOnTheCaller() {
+        assertEquals("octocat at INTERACTIVE", AsyncCaches.get(cache, "octocat", this::load));
+        assertEquals("octocat at INTERACTIVE", AsyncCaches.get(cache, "octocat", this::load));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void interactiveWaiterReloadsAShedBackgroundLoad() throws Exception {
+        Pending background = new Pending();
+        Future<String> interactive = joinInFlight(background, RequestPriority.INTERACTIVE);
+
+        background.completeExceptionally(new RateLimitExceededException("reserved", 60_000, true));
+
+        assertEquals("octocat at INTERACTIVE", interactive.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals("octocat at INTERACTIVE", cache.synchronous().getIfPresent("octocat"));
+    }
+
+    @Test
+    void backgroundWaiterSharesTheShed() throws Exception {
+        Pending background = new Pending();
+        Future<String> waiter = joinInFlight(background, RequestPriority.BACKGROUND);
+        RateLimitExceededException shed = new RateLimitExceededException("reserved", 60_000, true);
+
+        background.completeExceptionally(shed);
+
+        Exception thrown = assertThrows(Exception.class, () -> waiter.get(5, TimeUnit.SECONDS));
+        assertSame(shed, thrown.getCause());
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void exhaustedBudgetIsShared() throws Exception {
+        Pending pending = new Pending();
+        Future<String> interactive = joinInFlight(pending, RequestPriority.INTERACTIVE);
+        RateLimitExceededException exhausted = new RateLimitExceededException("exhausted", 60_000);
+
+        pending.completeExceptionally(exhausted);
+
+        Exception thrown = assertThrows(Exception.class, () -> interactive.get(5, TimeUnit.SECONDS));
+        assertSame(exhausted, thrown.getCause());
+        assertEquals(0, loads.get());
+    }
+}
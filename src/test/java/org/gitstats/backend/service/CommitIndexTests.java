@@ -0,0 +1,149 @@
+package org.gitstats.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import org.gitstats.backend.dto.CommitInsightsDTO;
+import org.gitstats.backend.dto.GitHubEventDTO;
+import org.junit.jupiter.api.Test;
+
+class CommitIndexTests {
+
+    private static final OffsetDateTime SATURDAY_NIGHT = OffsetDateTime.of(2024, 3, 2, 23, 30, 0, 0, ZoneOffset.UTC);
+
+    private static GitHubEventDTO event(long id, String type, OffsetDateTime createdAt, String repo) {
+        GitHubEventDTO event = new GitHubEventDTO();
+        event.setId(String.valueOf(id));
+        event.setType(type);
+        event.setCreatedAt(createdAt);
+        GitHubEventDTO.RepoInfo repoInfo = new GitHubEventDTO.RepoInfo();
+        repoInfo.setName(repo);
+        event.setRepo(repoInfo);
+        return event;
+    }
+
+    private static GitHubEventDTO push(long id, String repo, String ref, Integer size, Integer distinctSize) {
+        GitHubEventDTO event = event(id, "PushEvent", SATURDAY_NIGHT.minusHours(id), repo);
+        GitHubEventDTO.PayloadInfo payload = new GitHubEventDTO.PayloadInfo();
+        payload.setRef(ref);
+        payload.setSize(size);
+        payload.setDistinctSize(distinctSize);
+        event.setPayload(payload);
+        return event;
+    }
+
+    private static CommitInsightsDTO snapshot(CommitIndex index) {
+        return index.snapshot("octocat", ZoneOffset.UTC, 10);
+    }
+
+    @Test
+    void mergeAddsOnlyPushesNewerThanTheLastMerge() {
+        CommitIndex index = new CommitIndex(100);
+        // GitHub lists events newest first
+        EventColumns first = EventColumns.of(List.of(
+                push(3, "octocat/hello", "refs/heads/main", 2, 2),
+                event(2, "WatchEvent", SATURDAY_NIGHT, "octocat/hello"),
+                push(1, "octocat/hello", "refs/heads/main", 1, 1)));
+
+        assertEquals(2, index.merge(first));
+        assertEquals(0, index.merge(first));
+
+        EventColumns refreshed = EventColumns.of(List.of(
+                push(5, "octocat/spoon", "refs/heads/dev", 4, 3),
+                push(3, "octocat/hello", "refs/heads/main", 2, 2),
+                push(1, "octocat/hello", "refs/heads/main", 1, 1)));
+        assertEquals(1, index.merge(refreshed));
+        assertEquals(3, index.size());
+
+        CommitInsightsDTO insights = snapshot(index);
+        assertEquals(3, insights.getPushes());
+        assertEquals(7, insights.getCommits());
+        assertEquals(6, insights.getDistinctCommits());
+        assertEquals(Map.of("octocat/spoon", 4L, "octocat/hello", 3L), insights.getRepos());
+        assertEquals(Map.of("dev", 4L, "main", 3L), insights.getBranches());
+    }
+
+    @Test
+    void pushesThatScrollOutOfTheEventListAreKept() {
+        CommitIndex index = new CommitIndex(100);
+        index.merge(EventColumns.of(List.of(push(2, "octocat/hello", "refs/heads/main", 1, 1))));
+        index.merge(EventColumns.of(List.of(push(4, "octocat/hello", "refs/heads/main", 1, 1))));
+
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void dropOldestKeepsTheTotalsInStep() {
+        CommitIndex index = new CommitIndex(2);
+        index.merge(EventColumns.of(List.of(
+                push(3, "octocat/spoon", "refs/heads/dev", 1, 1),
+                push(2, "octocat/spoon", "refs/heads/main", 2, 1),
+                push(1, "octocat/hello", "refs/heads/main", null, null))));
+
+        CommitInsightsDTO insights = snapshot(index);
+        assertEquals(2, insights.getPushes());
+        assertEquals(3, insights.getCommits());
+        assertEquals(2, insights.getDistinctCommits());
+        // The dropped push was the estimated one
+        assertEquals(0, insights.getEstimatedPushes());
+        // A repository with nothing left is not listed
+        assertEquals(Map.of("octocat/spoon", 3L), insights.getRepos());
+        assertEquals(Map.of("main", 2L, "dev", 1L), insights.getBranches());
+        assertEquals(SATURDAY_NIGHT.minusHours(3), insights.getFrom());
+        assertEquals(SATURDAY_NIGHT.minusHours(2), insights.getTo());
+
+        // Later merges keep dropping from the front
+        index.merge(EventColumns.of(List.of(push(6, "octocat/hello", "refs/heads/main", 1, 1))));
+        insights = snapshot(index);
+        assertEquals(2, insights.getCommits());
+        assertEquals(Map.of("octocat/spoon", 1L, "octocat/hello", 1L), insights.getRepos());
+    }
+
+    @Test
+    void unreportedSizesCountAsOneEstimatedCommit() {
+        CommitIndex index = new CommitIndex(100);
+        index.merge(EventColumns.of(List.of(
+                push(2, "octocat/hello", "refs/heads/main", null, null),
+                // distinct_size never exceeds size
+                push(1, "octocat/hello", "refs/heads/main", 2, 5))));
+
+        CommitInsightsDTO insights = snapshot(index);
+        assertEquals(3, insights.getCommits());
+        assertEquals(3, insights.getDistinctCommits());
+        assertEquals(1, insights.getEstimatedPushes());
+    }
+
+    @Test
+    void histogramsFollowTheRequestedZone() {
+        CommitIndex index = new CommitIndex(100);
+        GitHubEventDTO push = push(1, "octocat/hello", "refs/heads/main", 3, 3);
+        push.setCreatedAt(SATURDAY_NIGHT);
+        index.merge(EventColumns.of(List.of(push)));
+
+        CommitInsightsDTO utc = snapshot(index);
+        assertEquals(23, utc.getBusiestHour());
+        assertEquals("Saturday", utc.getBusiestWeekday());
+        assertEquals(3, utc.getHourByWeekday()[6][23]);
+        assertEquals(1.0, utc.getNightOwlRatio());
+        assertEquals(1.0, utc.getWeekendRatio());
+
+        CommitInsightsDTO tokyo = index.snapshot("octocat", ZoneId.of("Asia/Tokyo"), 10);
+        assertEquals(8, tokyo.getBusiestHour());
+        assertEquals("Sunday", tokyo.getBusiestWeekday());
+        assertEquals(3, tokyo.getHourByWeekday()[0][8]);
+        assertEquals(0.0, tokyo.getNightOwlRatio());
+    }
+
+    @Test
+    void branchNamesDropTheHeadsPrefix() {
+        assertEquals("main", CommitIndex.branch("refs/heads/main"));
+        assertEquals("feature/x", CommitIndex.branch("refs/heads/feature/x"));
+        assertEquals("refs/tags/v1.0", CommitIndex.branch("refs/tags/v1.0"));
+        assertEquals("unknown", CommitIndex.branch(null));
+    }
+}
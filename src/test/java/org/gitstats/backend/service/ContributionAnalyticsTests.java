@@ -0,0 +1,176 @@
+package org.gitstats.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.gitstats.backend.dto.ContributionStatsDTO;
+import org.gitstats.backend.dto.ContributionsCollectionDTO;
+import org.gitstats.backend.dto.GitHubUserDTO;
+import org.junit.jupiter.api.Test;
+
+class ContributionAnalyticsTests {
+
+    // A Monday
+    private static final int JAN_1 = (int) LocalDate.of(2024, 1, 1).toEpochDay();
+
+    private static ContributionAnalytics calendar(int firstEpochDay, int... counts) {
+        ContributionAnalytics analytics = new ContributionAnalytics();
+        analytics.merge(firstEpochDay, counts);
+        return analytics;
+    }
+
+    // Everything the running statistics derive, compared with a calendar built in one merge
+    private static void assertSameStats(ContributionStatsDTO expected, ContributionStatsDTO actual) {
+        assertEquals(expected.getFrom(), actual.getFrom());
+        assertEquals(expected.getTo(), actual.getTo());
+        assertEquals(expected.getTotalContributions(), actual.getTotalContributions());
+        assertEquals(expected.getLastYearContributions(), actual.getLastYearContributions());
+        assertEquals(expected.getActiveDays(), actual.getActiveDays());
+        assertEquals(expected.getLongestStreak(), actual.getLongestStreak());
+        assertEquals(expected.getCurrentStreak(), actual.getCurrentStreak());
+        assertEquals(expected.getBusiestMonth(), actual.getBusiestMonth());
+        assertEquals(expected.getBusiestWeekday(), actual.getBusiestWeekday());
+        assertArrayEquals(expected.getMonthTotals(), actual.getMonthTotals());
+        assertArrayEquals(expected.getWeekdayTotals(), actual.getWeekdayTotals());
+        assertEquals(expected.getPercentiles(), actual.getPercentiles());
+    }
+
+    @Test
+    void streakRunsAcrossAWindowBoundary() {
+        ContributionAnalytics analytics = calendar(JAN_1, 0, 1, 0, 2, 3, 4);
+        assertEquals(3, analytics.snapshot("octocat").getLongestStreak());
+
+        // The next window continues the run that ended the previous one
+        assertEquals(5, analytics.merge(JAN_1 + 6, new int[] {1, 1, 1, 0, 1, 1}));
+        ContributionStatsDTO stats = analytics.snapshot("octocat");
+        assertEquals(6, stats.getLongestStreak());
+        assertEquals(2, stats.getCurrentStreak());
+
+        // Refreshing that window re-derives the streaks from the first changed day on
+        assertEquals(1, analytics.merge(JAN_1 + 6, new int[] {1, 0, 1, 0, 1, 1}));
+        stats = analytics.snapshot("octocat");
+        assertEquals(4, stats.getLongestStreak());
+        assertSameStats(calendar(JAN_1, 0, 1, 0, 2, 3, 4, 1, 0, 1, 0, 1, 1).snapshot("octocat"), stats);
+    }
+
+    @Test
+    void emptyTodayKeepsTheCurrentStreak() {
+        assertEquals(2, calendar(JAN_1, 0, 4, 4, 0).snapshot("octocat").getCurrentStreak());
+        assertEquals(0, calendar(JAN_1, 0, 4, 4, 0, 0).snapshot("octocat").getCurrentStreak());
+    }
+
+    @Test
+    void backExtensionRebasesWithoutLosingHistory() {
+        ContributionAnalytics analytics = calendar(JAN_1 + 40, 2, 2, 0, 7);
+        // An older window, ending right before the known days, with a gap day left empty
+        assertEquals(3, analytics.merge(JAN_1 + 35, new int[] {5, 0, 1, 1}));
+
+        assertEquals(JAN_1 + 35, analytics.getStartEpochDay());
+        assertArrayEquals(new int[] {5, 0, 1, 1, 0, 2, 2, 0, 7}, analytics.copyCounts());
+        ContributionStatsDTO stats = analytics.snapshot("octocat");
+        assertSameStats(calendar(JAN_1 + 35, 5, 0, 1, 1, 0, 2, 2, 0, 7).snapshot("octocat"), stats);
+        assertEquals(18, stats.getTotalContributions());
+        assertEquals(LocalDate.of(2024, 2, 5), stats.getFrom());
+
+        // Merges after the rebase land on the shifted indexes
+        analytics.merge(JAN_1 + 39, new int[] {3});
+        assertEquals(5, analytics.snapshot("octocat").getLongestStreak());
+        assertSameStats(calendar(JAN_1 + 35, 5, 0, 1, 1, 3, 2, 2, 0, 7).snapshot("octocat"),
+                analytics.snapshot("octocat"));
+    }
+
+    @Test
+    void daysBeforeTheAccountAreNotMerged() {
+        // Two weeks as GitHub returns them, padded with empty days before the account was created
+        ContributionsCollectionDTO collection = new ContributionsCollectionDTO();
+        collection.setContributionCalendar(new ContributionsCollectionDTO.ContributionCalendar());
+        List<ContributionsCollectionDTO.Week> weeks = new ArrayList<>();
+        int[] counts = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 3, 0, 1, 2};
+        for (int week = 0; week < 2; week++) {
+            List<ContributionsCollectionDTO.Day> days = new ArrayList<>();
+            for (int i = week * 7; i < week * 7 + 7; i++) {
+                ContributionsCollectionDTO.Day day = new ContributionsCollectionDTO.Day();
+                day.setDate(LocalDate.ofEpochDay(JAN_1 + i));
+                day.setContributionCount(counts[i]);
+                days.add(day);
+            }
+            ContributionsCollectionDTO.Week entry = new ContributionsCollectionDTO.Week();
+            entry.setContributionDays(days);
+            weeks.add(entry);
+        }
+        collection.getContributionCalendar().setWeeks(weeks);
+        GitHubUserDTO user = new GitHubUserDTO();
+        user.setCreatedAt(OffsetDateTime.of(2024, 1, 11, 3, 0, 0, 0, ZoneOffset.UTC));
+
+        ContributionAnalytics analytics = new ContributionAnalytics();
+        ContributionAnalyticsService.merge(analytics, collection, ContributionAnalyticsService.firstDay(user));
+
+        // A day of slack for time zones behind UTC
+        assertEquals(JAN_1 + 9, analytics.getStartEpochDay());
+        assertArrayEquals(new int[] {0, 3, 0, 1, 2}, analytics.copyCounts());
+        // Without a creation date the whole window is kept
+        ContributionAnalytics unclamped = new ContributionAnalytics();
+        ContributionAnalyticsService.merge(unclamped, collection);
+        assertEquals(JAN_1, unclamped.getStartEpochDay());
+    }
+
+    @Test
+    void emptyCalendarHasNoStats() {
+        ContributionAnalytics analytics = new ContributionAnalytics();
+        assertEquals(0, analytics.merge(JAN_1, new int[0]));
+
+        ContributionStatsDTO stats = analytics.snapshot("octocat");
+        assertEquals("octocat", stats.getLogin());
+        assertNull(stats.getFrom());
+        assertEquals(0, stats.getTotalContributions());
+        assertArrayEquals(new long[12], stats.getMonthTotals());
+        assertArrayEquals(new long[7], stats.getWeekdayTotals());
+        assertEquals(Map.of(), stats.getPercentiles());
+    }
+
+    @Test
+    void allZeroCalendarHasNoActivity() {
+        ContributionAnalytics analytics = calendar(JAN_1, new int[30]);
+
+        ContributionStatsDTO stats = analytics.snapshot("octocat");
+        assertEquals(LocalDate.of(2024, 1, 30), stats.getTo());
+        assertEquals(0, stats.getTotalContributions());
+        assertEquals(0, stats.getActiveDays());
+        assertEquals(0, stats.getLongestStreak());
+        assertEquals(0, stats.getCurrentStreak());
+        assertTrue(stats.getPercentiles().isEmpty());
+        // Merging the same zeros again changes nothing
+        assertEquals(0, analytics.merge(JAN_1, new int[30]));
+    }
+
+    @Test
+    void percentilesOnTiedCounts() {
+        // Every active day has the same count: all percentiles are that count
+        assertEquals(Map.of("p50", 5, "p75", 5, "p90", 5, "p99", 5),
+                calendar(JAN_1, 5, 0, 5, 5, 0, 5).snapshot("octocat").getPercentiles());
+
+        // Nine tied ones and one outlier among ten active days; zero days are not counted
+        Map<String, Integer> percentiles = calendar(JAN_1, 1, 1, 0, 1, 1, 1, 0, 1, 1, 1, 1, 10)
+                .snapshot("octocat").getPercentiles();
+        assertEquals(Map.of("p50", 1, "p75", 1, "p90", 1, "p99", 10), percentiles);
+    }
+
+    @Test
+    void percentilesFollowChangedDays() {
+        ContributionAnalytics analytics = calendar(JAN_1, 2, 2, 3, 3);
+        assertEquals(Map.of("p50", 2, "p75", 3, "p90", 3, "p99", 3), analytics.snapshot("octocat").getPercentiles());
+
+        // The histogram grows past its initial size for large counts
+        analytics.merge(JAN_1 + 2, new int[] {2, 200});
+        assertEquals(Map.of("p50", 2, "p75", 2, "p90", 200, "p99", 200), analytics.snapshot("octocat").getPercentiles());
+    }
+}
@@ -0,0 +1,71 @@
+package org.gitstats.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+class EncodedBodyCacheTests {
+
+    private static final byte[] IDENTITY = new byte[2048];
+    private static final byte[] GZIP = new byte[300];
+    private static final byte[] BROTLI = new byte[250];
+
+    private final EncodedBodyCache.EncodedBody body = new EncodedBodyCache.EncodedBody("abc123", IDENTITY, GZIP, BROTLI);
+
+    @Test
+    void qualityComesFromTheMatchingCoding() {
+        assertEquals(1.0, EncodedBodyCache.EncodedBody.quality("gzip, deflate, br", "br"));
+        assertEquals(0.5, EncodedBodyCache.EncodedBody.quality("gzip;q=1.0, br;q=0.5", "br"));
+        // Names are case-insensitive and may carry whitespace
+        assertEquals(0.8, EncodedBodyCache.EncodedBody.quality(" GZIP ; q=0.8", "gzip"));
+        assertEquals(0.0, EncodedBodyCache.EncodedBody.quality("gzip", "br"));
+        assertEquals(0.0, EncodedBodyCache.EncodedBody.quality(null, "gzip"));
+        assertEquals(0.0, EncodedBodyCache.EncodedBody.quality("br;q=oops", "br"));
+    }
+
+    @Test
+    void wildcardAppliesOnlyToCodingsNotListed() {
+        assertEquals(0.3, EncodedBodyCache.EncodedBody.quality("gzip, *;q=0.3", "br"));
+        assertEquals(1.0, EncodedBodyCache.EncodedBody.quality("*;q=0.3, gzip", "gzip"));
+        assertEquals(0.0, EncodedBodyCache.EncodedBody.quality("*, br;q=0", "br"));
+    }
+
+    @Test
+    void brotliIsPreferredUnlessGzipRanksHigher() {
+        EncodedBodyCache.Representation br = body.select("gzip, deflate, br");
+        assertEquals("br", br.contentEncoding());
+        assertSame(BROTLI, br.body());
+        assertEquals("\"abc123-br\"", br.etag());
+
+        EncodedBodyCache.Representation gzip = body.select("br;q=0.5, gzip");
+        assertEquals("gzip", gzip.contentEncoding());
+        assertSame(GZIP, gzip.body());
+        assertEquals("\"abc123-gzip\"", gzip.etag());
+
+        assertEquals("br", body.select("br;q=0.5, gzip;q=0.5").contentEncoding());
+        assertEquals("gzip", body.select("gzip, br;q=0").contentEncoding());
+    }
+
+    @Test
+    void identityWhenNothingCompressedIsAccepted() {
+        for (String acceptEncoding : new String[] {null, "", "deflate", "identity", "gzip;q=0, br;q=0", "*;q=0"}) {
+            EncodedBodyCache.Representation identity = body.select(acceptEncoding);
+            assertNull(identity.contentEncoding());
+            assertSame(IDENTITY, identity.body());
+            assertEquals("\"abc123\"", identity.etag());
+        }
+    }
+
+    @Test
+    void missingEncodingsFallBack() {
+        // Too small to compress, or brotli unavailable
+        EncodedBodyCache.EncodedBody small = new EncodedBodyCache.EncodedBody("abc123", IDENTITY, null, null);
+        EncodedBodyCache.EncodedBody gzipOnly = new EncodedBodyCache.EncodedBody("abc123", IDENTITY, GZIP, null);
+
+        assertNull(small.select("gzip, br").contentEncoding());
+        assertEquals("gzip", gzipOnly.select("gzip, br").contentEncoding());
+        assertNull(gzipOnly.select("br").contentEncoding());
+    }
+}
@@ -0,0 +1,164 @@
+package org.gitstats.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.gitstats.backend.dto.GitHubEventDTO;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The column aggregations against the same computations over the DTO list, on the
+ * recorded events page in src/jmh/resources/fixtures.
+ */
+class EventColumnsTests {
+
+    private static final List<ZoneId> ZONES = List.of(ZoneId.of("UTC"), ZoneId.of("America/New_York"), ZoneId.of("Asia/Kolkata"));
+
+    private final List<GitHubEventDTO> events = fixture();
+    private final EventColumns columns = EventColumns.of(events);
+
+    private static List<GitHubEventDTO> fixture() {
+        try (InputStream in = EventColumnsTests.class.getResourceAsStream("/fixtures/events-page.json")) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture events-page.json");
+            }
+            List<GitHubEventDTO> events = new ArrayList<>();
+            new GitHubJsonDecoder().readEvents(in, events::add);
+            return events;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void eventsRoundTrip() {
+        assertEquals(events.size(), columns.size());
+        assertEquals(events, columns.toEvents());
+    }
+
+    @Test
+    void perTypeMatchesTheList() {
+        int[] expected = new int[EventType.values().length];
+        for (GitHubEventDTO event : events) {
+            expected[EventType.fromApiName(event.getType()).code()]++;
+        }
+
+        assertArrayEquals(expected, columns.perType());
+    }
+
+    @Test
+    void perRepoMatchesTheList() {
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        for (GitHubEventDTO event : events) {
+            expected.merge(event.getRepo().getName(), 1, Integer::sum);
+        }
+
+        Map<String, Integer> counted = new LinkedHashMap<>();
+        int[] perRepo = columns.perRepo();
+        for (int repo = 0; repo < columns.repoCount(); repo++) {
+            counted.put(columns.repoName(repo), perRepo[repo]);
+        }
+        assertEquals(expected, counted);
+    }
+
+    @Test
+    void countSinceMatchesTheList() {
+        // Every event time, so the strict "after" boundary is hit as well
+        for (GitHubEventDTO boundary : events) {
+            OffsetDateTime since = boundary.getCreatedAt();
+            long expected = events.stream().filter(event -> event.getCreatedAt().isAfter(since)).count();
+
+            assertEquals(expected, columns.countSince(since.toEpochSecond()));
+        }
+    }
+
+    @Test
+    void newestAndOldestMatchTheList() {
+        assertEquals(events.stream().mapToLong(event -> event.getCreatedAt().toEpochSecond()).max().getAsLong(), columns.newest());
+        assertEquals(events.stream().mapToLong(event -> event.getCreatedAt().toEpochSecond()).min().getAsLong(), columns.oldest());
+        assertNull(EventColumns.of(List.of()).newest());
+        assertNull(EventColumns.of(List.of(new GitHubEventDTO())).oldest());
+    }
+
+    @Test
+    void hourByWeekdayMatchesTheList() {
+        for (ZoneId zone : ZONES) {
+            int[][] expected = new int[7][24];
+            for (GitHubEventDTO event : events) {
+                ZonedDateTime local = event.getCreatedAt().atZoneSameInstant(zone);
+                expected[local.getDayOfWeek().getValue() % 7][local.getHour()]++;
+            }
+
+            assertArrayEquals(expected, columns.hourByWeekday(zone.getRules()), zone.getId());
+        }
+    }
+
+    @Test
+    void perTypeOverTimeMatchesTheList() {
+        Map<EventColumns.Bucket, Function<ZonedDateTime, LocalDateTime>> starts = Map.of(
+                EventColumns.Bucket.HOUR, local -> local.toLocalDateTime().truncatedTo(ChronoUnit.HOURS),
+                EventColumns.Bucket.DAY, local -> local.toLocalDate().atStartOfDay(),
+                EventColumns.Bucket.WEEK, local -> local.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay());
+        for (ZoneId zone : ZONES) {
+            starts.forEach((bucket, start) -> {
+                TreeMap<LocalDateTime, int[]> expected = new TreeMap<>();
+                for (GitHubEventDTO event : events) {
+                    LocalDateTime key = start.apply(event.getCreatedAt().atZoneSameInstant(zone));
+                    expected.computeIfAbsent(key, k -> new int[EventType.values().length])[EventType.fromApiName(event.getType()).code()]++;
+                }
+
+                assertEquals(lists(expected), lists(columns.perTypeOverTime(bucket, zone.getRules())), bucket + " in " + zone);
+            });
+        }
+    }
+
+    @Test
+    void concatenatedPagesMatchOneList() {
+        List<EventColumns> pages = List.of(
+                EventColumns.of(events.subList(0, 30)),
+                EventColumns.of(events.subList(30, 30)),
+                EventColumns.of(events.subList(30, 65)),
+                EventColumns.of(events.subList(65, events.size())));
+        EventColumns joined = EventColumns.concat(pages);
+
+        assertEquals(events, joined.toEvents());
+        assertArrayEquals(columns.perType(), joined.perType());
+        // Repositories seen on several pages share one dictionary entry, in first-seen order
+        assertEquals(columns.repoCount(), joined.repoCount());
+        assertArrayEquals(columns.perRepo(), joined.perRepo());
+        for (int i = 0; i < columns.size(); i++) {
+            assertEquals(columns.repo(i), joined.repo(i));
+            assertEquals(columns.pushRef(i), joined.pushRef(i));
+        }
+        assertArrayEquals(columns.hourByWeekday(ZONES.get(1).getRules()), joined.hourByWeekday(ZONES.get(1).getRules()));
+        assertEquals(columns.newest(), joined.newest());
+        assertEquals(columns.oldest(), joined.oldest());
+        // A single page is used as is
+        assertSame(columns, EventColumns.concat(List.of(columns)));
+    }
+
+    private static Map<LocalDateTime, List<Integer>> lists(TreeMap<LocalDateTime, int[]> counts) {
+        Map<LocalDateTime, List<Integer>> lists = new LinkedHashMap<>();
+        counts.forEach((start, perType) -> lists.put(start, Arrays.stream(perType).boxed().toList()));
+        return lists;
+    }
+}
@@ -0,0 +1,130 @@
+package org.gitstats.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.gitstats.backend.dto.GitHubEventDTO;
+import org.gitstats.backend.dto.GitHubRepoDTO;
+import org.gitstats.backend.dto.GitHubUserDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The streaming decoder against Jackson data binding (configured like RestClient's
+ * converter) on the recorded payloads in src/jmh/resources/fixtures.
+ */
+class GitHubJsonDecoderTests {
+
+    private final GitHubJsonDecoder decoder = new GitHubJsonDecoder();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private static byte[] fixture(String name) throws IOException {
+        try (InputStream in = GitHubJsonDecoderTests.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + name);
+            }
+            return in.readAllBytes();
+        }
+    }
+
+    private static InputStream json(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void userMatchesDataBinding() throws IOException {
+        byte[] user = fixture("user.json");
+
+        assertEquals(objectMapper.readValue(user, GitHubUserDTO.class), decoder.readUser(new ByteArrayInputStream(user)));
+    }
+
+    @Test
+    void reposMatchDataBinding() throws IOException {
+        byte[] page = fixture("repos-page.json");
+        List<GitHubRepoDTO> expected = objectMapper.readValue(page, new TypeReference<List<GitHubRepoDTO>>() {});
+
+        List<GitHubRepoDTO> streamed = new ArrayList<>();
+        assertEquals(expected.size(), decoder.readRepos(new ByteArrayInputStream(page), streamed::add));
+        assertEquals(expected, streamed);
+        assertEquals(expected, decoder.read(new ParameterizedTypeReference<List<GitHubRepoDTO>>() {}.getType(),
+                new ByteArrayInputStream(page)));
+    }
+
+    @Test
+    void eventsMatchDataBinding() throws IOException {
+        byte[] page = fixture("events-page.json");
+        List<GitHubEventDTO> expected = objectMapper.readValue(page, new TypeReference<List<GitHubEventDTO>>() {});
+        // The decoder keeps only push payloads
+        for (GitHubEventDTO event : expected) {
+            if (!"PushEvent".equals(event.getType())) {
+                event.setPayload(null);
+            }
+        }
+
+        List<GitHubEventDTO> streamed = new ArrayList<>();
+        assertEquals(expected.size(), decoder.readEvents(new ByteArrayInputStream(page), streamed::add));
+        assertEquals(expected, streamed);
+    }
+
+    @Test
+    void pushSizesFallBackToTheCommitList() throws IOException {
+        List<GitHubEventDTO> events = new ArrayList<>();
+        decoder.readEvents(json("""
+                [{"id": "1", "payload": {"ref": "refs/heads/main", "commits": [
+                    {"sha": "a", "distinct": true}, {"sha": "b", "distinct": false}, {"sha": "c"}]},
+                  "type": "PushEvent"},
+                 {"id": "2", "type": "PushEvent", "payload": {"size": 7, "distinct_size": 5, "commits": []}}]
+                """), events::add);
+
+        // The type can follow the payload
+        assertEquals("refs/heads/main", events.get(0).getPayload().getRef());
+        assertEquals(3, events.get(0).getPayload().getSize());
+        assertEquals(2, events.get(0).getPayload().getDistinctSize());
+        // Sizes GitHub sends win over the (truncated) commit list
+        assertEquals(7, events.get(1).getPayload().getSize());
+        assertEquals(5, events.get(1).getPayload().getDistinctSize());
+    }
+
+    @Test
+    void otherPayloadsAreSkipped() throws IOException {
+        List<GitHubEventDTO> events = new ArrayList<>();
+        decoder.readEvents(json("""
+                [{"id": "1", "payload": {"ref": "main", "ref_type": "branch"}, "type": "CreateEvent",
+                  "repo": {"id": 42, "name": "octocat/hello", "url": "https://api.github.com/repos/octocat/hello"}}]
+                """), events::add);
+
+        assertEquals(1, events.size());
+        assertNull(events.get(0).getPayload());
+        assertEquals(42L, events.get(0).getRepo().getId());
+        assertEquals("octocat/hello", events.get(0).getRepo().getName());
+    }
+
+    @Test
+    void datesAreParsedAsUtc() {
+        assertEquals(OffsetDateTime.of(2011, 1, 25, 18, 44, 36, 0, ZoneOffset.UTC),
+                GitHubJsonDecoder.parseDateTime("2011-01-25T18:44:36Z"));
+        // Anything but GitHub's own format goes through the ISO parser
+        assertEquals(OffsetDateTime.of(2011, 1, 25, 18, 44, 36, 500_000_000, ZoneOffset.ofHours(2)),
+                GitHubJsonDecoder.parseDateTime("2011-01-25T18:44:36.5+02:00"));
+    }
+
+    @Test
+    void malformedJsonFails() {
+        assertThrows(JsonParseException.class, () -> decoder.readRepos(json("[{\"id\": 1,"), repo -> { }));
+    }
+}
@@ -0,0 +1,108 @@
+package org.gitstats.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class GitHubPaginatorTests {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static String link(int next, int last) {
+        return "<https://api.github.com/users/octocat/repos?per_page=100&page=" + next + ">; rel=\"next\", "
+                + "<https://api.github.com/users/octocat/repos?per_page=100&page=" + last + ">; rel=\"last\"";
+    }
+
+    // Page n holds the items n * 10 .. n * 10 + 9; pages come back in random order
+    private static GitHubPaginator.Page<Integer> page(int page, int lastPage, Set<Integer> requested) {
+        requested.add(page);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            items.add(page * 10 + i);
+        }
+        return new GitHubPaginator.Page<>(items, page == 1 ? link(2, lastPage) : null);
+    }
+
+    @Test
+    void lastPageComesFromTheLastRelation() {
+        assertEquals(7, GitHubPaginator.lastPage(link(2, 7)));
+        // per_page must not be mistaken for page
+        assertEquals(12, GitHubPaginator.lastPage("<https://api.github.com/user/repos?page=12&per_page=100>; rel=\"last\""));
+        // The last page itself only links back
+        assertEquals(1, GitHubPaginator.lastPage("<https://api.github.com/user/repos?page=6>; rel=\"prev\", "
+                + "<https://api.github.com/user/repos?page=1>; rel=\"first\""));
+        assertEquals(1, GitHubPaginator.lastPage(null));
+    }
+
+    @Test
+    void pagesAreMergedInPageOrder() {
+        GitHubPaginator paginator = new GitHubPaginator(executor, 3, 10);
+        Set<Integer> requested = ConcurrentHashMap.newKeySet();
+
+        List<Integer> items = paginator.fetchAll(page -> page(page, 6, requested));
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 10; i < 70; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, items);
+        assertEquals(Set.of(1, 2, 3, 4, 5, 6), requested);
+    }
+
+    @Test
+    void pagesPastMaxPagesAreNotFetched() {
+        GitHubPaginator paginator = new GitHubPaginator(executor, 3, 10);
+        Set<Integer> requested = ConcurrentHashMap.newKeySet();
+
+        List<Integer> items = paginator.fetchAll(page -> page(page, 40, requested), 4);
+
+        assertEquals(40, items.size());
+        assertEquals(10, items.get(0));
+        assertEquals(49, items.get(39));
+        assertEquals(Set.of(1, 2, 3, 4), requested);
+    }
+
+    @Test
+    void singlePageNeedsNoWorkers() {
+        GitHubPaginator paginator = new GitHubPaginator(executor, 3, 10);
+
+        List<Integer> items = paginator.fetchAll(page -> new GitHubPaginator.Page<>(List.of(1, 2), null));
+
+        assertEquals(List.of(1, 2), items);
+    }
+
+    @Test
+    void aFailedPageFailsTheWholeList() {
+        GitHubPaginator paginator = new GitHubPaginator(executor, 3, 10);
+        RateLimitExceededException limited = new RateLimitExceededException("exhausted", 1_000);
+
+        RateLimitExceededException thrown = assertThrows(RateLimitExceededException.class, () -> paginator.fetchAll(page -> {
+            if (page == 4) {
+                throw limited;
+            }
+            return page(page, 8, ConcurrentHashMap.newKeySet());
+        }));
+        assertSame(limited, thrown);
+    }
+}
@@ -0,0 +1,121 @@
+package org.gitstats.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+class RateLimitSchedulerTests {
+
+    private static final String POOL = "anonymous:core";
+
+    // max-wait 1.5s, 20% reserved for interactive calls, paced below 25%
+    private final RateLimitScheduler scheduler = new RateLimitScheduler(Duration.ofMillis(1_500), 0.2, 0.25);
+
+    private static HttpHeaders budget(int limit, int remaining, long resetInSeconds) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-RateLimit-Limit", String.valueOf(limit));
+        headers.add("X-RateLimit-Remaining", String.valueOf(remaining));
+        headers.add("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() / 1000 + resetInSeconds));
+        return headers;
+    }
+
+    @Test
+    void unknownPoolIsNotLimited() {
+        assertEquals(0, scheduler.reserve(POOL, RequestPriority.BACKGROUND));
+        assertTrue(scheduler.hasSpareBudget(POOL));
+        assertEquals(-1, scheduler.remaining(POOL));
+    }
+
+    @Test
+    void reserveSpendsFromTheKnownBudget() {
+        scheduler.update(POOL, 200, budget(60, 50, 3_600));
+
+        assertEquals(0, scheduler.reserve(POOL, RequestPriority.INTERACTIVE));
+        assertEquals(0, scheduler.reserve(POOL, RequestPriority.BACKGROUND));
+        assertEquals(48, scheduler.remaining(POOL));
+    }
+
+    @Test
+    void backgroundCallsAreShedInsideTheReserve() {
+        // 12 of 60 left: exactly the 20% kept for interactive calls
+        scheduler.update(POOL, 200, budget(60, 12, 3_600));
+
+        assertFalse(scheduler.hasSpareBudget(POOL));
+        assertThrows(RateLimitExceededException.class, () -> scheduler.reserve(POOL, RequestPriority.BACKGROUND));
+        assertEquals(1, scheduler.getShed());
+        assertEquals(12, scheduler.remaining(POOL));
+        // Interactive calls may still spend it (paced, as 12 < 25% of 60)
+        assertEquals(0, scheduler.reserve(POOL, RequestPriority.INTERACTIVE));
+        assertEquals(11, scheduler.remaining(POOL));
+    }
+
+    @Test
+    void lowBudgetIsSpacedUntilTheReset() {
+        // 10 left for the next ~10s: one call per ~second
+        scheduler.update(POOL, 200, budget(100, 10, 11));
+
+        assertEquals(0, scheduler.reserve(POOL, RequestPriority.INTERACTIVE));
+        long second = scheduler.reserve(POOL, RequestPriority.INTERACTIVE);
+        assertTrue(second >= 800 && second <= 1_100, "second call waits one interval, was " + second);
+        // The third slot is two intervals out, past max-wait
+        assertThrows(RateLimitExceededException.class, () -> scheduler.reserve(POOL, RequestPriority.INTERACTIVE));
+        assertEquals(1, scheduler.getRejected());
+    }
+
+    @Test
+    void exhaustedPoolWaitsForTheReset() {
+        scheduler.update(POOL, 403, budget(60, 0, 3_600));
+
+        assertThrows(RateLimitExceededException.class, () -> scheduler.reserve(POOL, RequestPriority.INTERACTIVE));
+        RateLimitExceededException shed = assertThrows(RateLimitExceededException.class,
+                () -> scheduler.reserve(POOL, RequestPriority.BACKGROUND));
+        assertTrue(shed.getRetryAfterSeconds() > 3_500);
+    }
+
+    @Test
+    void retryAfterBlocksForItsDuration() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.RETRY_AFTER, "1");
+        scheduler.update(POOL, 429, headers);
+
+        long wait = scheduler.reserve(POOL, RequestPriority.INTERACTIVE);
+        assertTrue(wait > 800 && wait <= 1_000, "waits out Retry-After, was " + wait);
+        assertThrows(RateLimitExceededException.class, () -> scheduler.reserve(POOL, RequestPriority.BACKGROUND));
+    }
+
+    @Test
+    void otherForbiddenResponsesDoNotBlockThePool() {
+        // e.g. SSO enforcement or a blocked repository, with plenty of budget left
+        scheduler.update(POOL, 403, budget(5_000, 4_000, 3_600));
+
+        assertEquals(0, scheduler.reserve(POOL, RequestPriority.BACKGROUND));
+    }
+
+    @Test
+    void onlyExhaustionOrRetryAfterCountsAsRateLimited() {
+        assertTrue(RateLimitScheduler.isRateLimited(403, budget(60, 0, 60)));
+        assertFalse(RateLimitScheduler.isRateLimited(403, budget(60, 5, 60)));
+        HttpHeaders retryAfter = new HttpHeaders();
+        retryAfter.add(HttpHeaders.RETRY_AFTER, "30");
+        assertTrue(RateLimitScheduler.isRateLimited(429, retryAfter));
+        assertFalse(RateLimitScheduler.isRateLimited(429, new HttpHeaders()));
+        assertFalse(RateLimitScheduler.isRateLimited(500, budget(60, 0, 60)));
+    }
+
+    @Test
+    void poolsAreSeparatedByTokenAndResource() {
+        HttpHeaders anonymous = new HttpHeaders();
+        HttpHeaders authenticated = new HttpHeaders();
+        authenticated.setBearerAuth("token-a");
+
+        assertEquals("anonymous:core", RateLimitScheduler.pool(anonymous, "/users/octocat"));
+        assertEquals("anonymous:graphql", RateLimitScheduler.pool(anonymous, "/graphql"));
+        assertEquals(TokenFingerprint.of("token-a") + ":core", RateLimitScheduler.pool(authenticated, "/user"));
+    }
+}
@@ -0,0 +1,107 @@
+package org.gitstats.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+class SingleFlightTests {
+
+    private static final String POOL = "anonymous:core";
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final SingleFlight<String, String> flight = new SingleFlight<>();
+    private final RateLimitScheduler scheduler = new RateLimitScheduler(Duration.ofSeconds(2), 0.2, 0.25);
+    private final List<RequestPriority> calls = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Holds the leader until a second caller has joined its flight, then spends budget at the caller's priority
+    private String fetchOnceJoined() {
+        while (flight.stats().get("coalesced").equals(0L)) {
+            Thread.onSpinWait();
+        }
+        calls.add(RequestPriority.current());
+        scheduler.reserve(POOL, RequestPriority.current());
+        return "octocat";
+    }
+
+    // Lets the leader started on the executor claim the key before the test thread arrives
+    private void awaitLeader() {
+        while (flight.stats().get("inFlight").equals(0)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private void reserveReached() {
+        // 10 of 60 left: inside the 20% kept for interactive calls
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-RateLimit-Limit", "60");
+        headers.add("X-RateLimit-Remaining", "10");
+        headers.add("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() / 1000 + 3_600));
+        scheduler.update(POOL, 200, headers);
+    }
+
+    @Test
+    void interactiveWaiterRetriesAShedBackgroundLeader() throws Exception {
+        reserveReached();
+        Future<String> background = executor.submit(
+                () -> RequestPriority.BACKGROUND.call(() -> flight.execute("octocat", this::fetchOnceJoined)));
+        awaitLeader();
+
+        // Joins the background flight, which is then shed
+        String interactive = flight.execute("octocat", this::fetchOnceJoined);
+
+        assertEquals("octocat", interactive);
+        assertEquals(List.of(RequestPriority.BACKGROUND, RequestPriority.INTERACTIVE), calls);
+        Exception shed = assertThrows(Exception.class, () -> background.get(5, TimeUnit.SECONDS));
+        assertEquals(RateLimitExceededException.class, shed.getCause().getClass());
+        assertEquals(1L, scheduler.getShed());
+    }
+
+    @Test
+    void backgroundWaiterSharesTheShed() throws Exception {
+        reserveReached();
+        Future<String> leader = executor.submit(
+                () -> RequestPriority.BACKGROUND.call(() -> flight.execute("octocat", this::fetchOnceJoined)));
+        awaitLeader();
+
+        RateLimitExceededException shed = assertThrows(RateLimitExceededException.class,
+                () -> RequestPriority.BACKGROUND.call(() -> flight.execute("octocat", this::fetchOnceJoined)));
+
+        assertEquals(true, shed.isShed());
+        assertEquals(List.of(RequestPriority.BACKGROUND), calls);
+        assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void otherFailuresAreShared() throws Exception {
+        RateLimitExceededException exhausted = new RateLimitExceededException("exhausted", 60_000);
+        Future<String> leader = executor.submit(() -> flight.execute("octocat", () -> {
+            fetchOnceJoined();
+            throw exhausted;
+        }));
+        awaitLeader();
+
+        RateLimitExceededException thrown = assertThrows(RateLimitExceededException.class,
+                () -> flight.execute("octocat", this::fetchOnceJoined));
+
+        assertSame(exhausted, thrown);
+        assertEquals(1, calls.size());
+        assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+    }
+}
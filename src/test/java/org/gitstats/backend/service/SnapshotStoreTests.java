@@ -0,0 +1,258 @@
+package org.gitstats.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.gitstats.backend.dto.GitHubRepoDTO;
+import org.gitstats.backend.dto.GitHubUserDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnapshotStoreTests {
+
+    @TempDir
+    Path dir;
+
+    private SnapshotStore open(long maxBytes, Duration rewriteUnchangedAfter) {
+        return new SnapshotStore(true, dir.resolve("snapshots.bin").toString(), 2.0, maxBytes, rewriteUnchangedAfter);
+    }
+
+    private SnapshotStore open() {
+        return open(1 << 20, Duration.ofHours(1));
+    }
+
+    private static GitHubUserDTO user(String login, int followers) {
+        GitHubUserDTO user = new GitHubUserDTO();
+        user.setLogin(login);
+        user.setName("The " + login);
+        user.setAvatarUrl("https://avatars.githubusercontent.com/" + login);
+        user.setCreatedAt(OffsetDateTime.of(2011, 1, 25, 18, 44, 36, 0, ZoneOffset.UTC));
+        user.setFollowers(followers);
+        user.setFollowing(9);
+        return user;
+    }
+
+    private static GitHubRepoDTO repo(long id, String name) {
+        GitHubRepoDTO repo = new GitHubRepoDTO();
+        repo.setId(id);
+        repo.setName(name);
+        repo.setFullName("octocat/" + name);
+        repo.setHtmlUrl("https://github.com/octocat/" + name);
+        repo.setStargazersCount(1_500);
+        repo.setForksCount(0);
+        repo.setLanguage("Java");
+        repo.setPushedAt(OffsetDateTime.of(2024, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC));
+        return repo;
+    }
+
+    private static Map<String, GitHubUserDTO> users(SnapshotStore store) {
+        Map<String, GitHubUserDTO> users = new LinkedHashMap<>();
+        store.forEachLive(Duration.ofDays(1), (type, key, savedAtMillis, payload) -> {
+            if (type == SnapshotStore.Type.USER) {
+                users.put(key, SnapshotCodec.readUser(payload));
+            }
+        });
+        return users;
+    }
+
+    private static long fileBytes(SnapshotStore store) {
+        return (Long) store.stats().get("fileBytes");
+    }
+
+    @Test
+    void recordsSurviveAReopen() throws IOException {
+        List<GitHubRepoDTO> repos = List.of(repo(1_296_269, "Hello-World"), repo(0, "empty-id"));
+        SnapshotStore store = open();
+        store.putUser("Octocat", user("octocat", 4_000));
+        store.putRepos("octocat", repos);
+        store.putCalendar("octocat", 19_800, new int[] {0, 3, 0, 12});
+        store.close();
+
+        store = open();
+        Map<SnapshotStore.Type, Object> restored = new LinkedHashMap<>();
+        store.forEachLive(Duration.ofDays(1), (type, key, savedAtMillis, payload) -> {
+            // Keys are stored lower-cased
+            assertEquals("octocat", key);
+            restored.put(type, switch (type) {
+                case USER -> SnapshotCodec.readUser(payload);
+                case REPOS -> SnapshotCodec.readRepos(payload);
+                case CALENDAR -> SnapshotCodec.readCalendar(payload);
+            });
+        });
+        store.close();
+
+        assertEquals(user("octocat", 4_000), restored.get(SnapshotStore.Type.USER));
+        assertEquals(repos, restored.get(SnapshotStore.Type.REPOS));
+        SnapshotCodec.CalendarSnapshot calendar = (SnapshotCodec.CalendarSnapshot) restored.get(SnapshotStore.Type.CALENDAR);
+        assertEquals(19_800, calendar.startEpochDay());
+        assertArrayEquals(new int[] {0, 3, 0, 12}, calendar.counts());
+    }
+
+    @Test
+    void latestRecordPerKeyWins() throws IOException {
+        SnapshotStore store = open();
+        store.putUser("octocat", user("octocat", 1));
+        store.putUser("octocat", user("octocat", 2));
+        store.putUser("hubot", user("hubot", 3));
+        store.close();
+
+        store = open();
+        Map<String, GitHubUserDTO> users = users(store);
+        store.close();
+
+        assertEquals(2, users.size());
+        assertEquals(2, users.get("octocat").getFollowers());
+        assertEquals(3, users.get("hubot").getFollowers());
+    }
+
+    @Test
+    void tornTailIsCutOffOnOpen() throws IOException {
+        SnapshotStore store = open();
+        store.putUser("octocat", user("octocat", 1));
+        long intact = fileBytes(store);
+        store.putUser("hubot", user("hubot", 2));
+        long written = fileBytes(store);
+        store.close();
+        // A crash halfway through the second record
+        try (FileChannel file = FileChannel.open(dir.resolve("snapshots.bin"), StandardOpenOption.WRITE)) {
+            file.truncate(written - 5);
+        }
+
+        store = open();
+        assertEquals(intact, fileBytes(store));
+        assertEquals(List.of("octocat"), List.copyOf(users(store).keySet()));
+        // Appends continue from the cut
+        store.putUser("hubot", user("hubot", 2));
+        store.close();
+
+        store = open();
+        assertEquals(written, fileBytes(store));
+        assertEquals(2, users(store).size());
+        store.close();
+    }
+
+    @Test
+    void corruptRecordIsCutOffOnOpen() throws IOException {
+        SnapshotStore store = open();
+        store.putUser("octocat", user("octocat", 1));
+        long intact = fileBytes(store);
+        store.putUser("hubot", user("hubot", 2));
+        store.close();
+        // Flip a byte in the second record's payload so its checksum no longer matches
+        try (FileChannel file = FileChannel.open(dir.resolve("snapshots.bin"), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            file.read(last, file.size() - 1);
+            last.put(0, (byte) ~last.get(0));
+            file.write(last.rewind(), file.size() - 1);
+        }
+
+        store = open();
+        assertEquals(intact, fileBytes(store));
+        assertEquals(List.of("octocat"), List.copyOf(users(store).keySet()));
+        store.close();
+    }
+
+    @Test
+    void unchangedPayloadIsNotAppendedAgain() throws IOException {
+        SnapshotStore store = open();
+        store.putUser("octocat", user("octocat", 1));
+        long written = fileBytes(store);
+        store.putUser("octocat", user("octocat", 1));
+
+        assertEquals(written, fileBytes(store));
+        assertEquals(1L, store.stats().get("unchanged"));
+        store.putUser("octocat", user("octocat", 2));
+        assertTrue(fileBytes(store) > written);
+        store.close();
+
+        // Past rewrite-unchanged-after the same payload is written again, to refresh its age
+        store = open(1 << 20, Duration.ZERO);
+        long before = fileBytes(store);
+        store.putUser("octocat", user("octocat", 2));
+        assertTrue(fileBytes(store) > before);
+        store.close();
+    }
+
+    @Test
+    void compactionKeepsOnlyTheLatestRecords() throws IOException {
+        SnapshotStore store = open(4_096, Duration.ofHours(1));
+        for (int i = 0; store.stats().get("dropped").equals(0L); i++) {
+            store.putUser("octocat", user("octocat", i));
+        }
+        long full = fileBytes(store);
+        GitHubUserDTO latest = users(store).get("octocat");
+
+        store.compactIfNeeded();
+
+        assertTrue(fileBytes(store) < full / 10);
+        assertEquals(store.stats().get("liveBytes"), store.stats().get("fileBytes"));
+        assertEquals(latest, users(store).get("octocat"));
+        store.close();
+    }
+
+    @Test
+    void fullStoreDropsTheOldestRecordsOnCompaction() throws IOException, InterruptedException {
+        SnapshotStore store = open(2_048, Duration.ofHours(1));
+        int count = 0;
+        while (store.stats().get("dropped").equals(0L)) {
+            store.putUser("user" + count, user("user" + count, count));
+            count++;
+            // Distinct saved-at times, so "oldest" is well defined
+            Thread.sleep(2);
+        }
+        // The last put was dropped: the store is full
+        assertFalse(users(store).containsKey("user" + (count - 1)));
+
+        store.compactIfNeeded();
+
+        assertTrue(fileBytes(store) <= 2_048 * 3 / 4);
+        Map<String, GitHubUserDTO> users = users(store);
+        assertFalse(users.containsKey("user0"));
+        assertTrue(users.containsKey("user" + (count - 2)));
+        // There is room again
+        store.putUser("late", user("late", 1));
+        assertTrue(users(store).containsKey("late"));
+        store.close();
+    }
+
+    @Test
+    void compactionDuringAWarmMovesNoRecordFromUnderIt() throws IOException {
+        SnapshotStore store = open(4_096, Duration.ofHours(1));
+        Map<String, Integer> latest = new LinkedHashMap<>();
+        // Superseded records first, so compaction moves every live one
+        for (int round = 0; fileBytes(store) < 4_096 * 3 / 4; round++) {
+            for (int i = 0; i < 10 && fileBytes(store) < 4_096 * 3 / 4; i++) {
+                store.putUser("user" + i, user("user" + i, round));
+                latest.put("user" + i, round);
+            }
+        }
+        assertEquals(0L, store.stats().get("dropped"));
+        long full = fileBytes(store);
+
+        Map<String, Integer> warmed = new LinkedHashMap<>();
+        store.forEachLive(Duration.ofDays(1), (type, key, savedAtMillis, payload) -> {
+            if (warmed.isEmpty()) {
+                store.compactIfNeeded();
+            }
+            warmed.put(key, SnapshotCodec.readUser(payload).getFollowers());
+        });
+
+        assertTrue(fileBytes(store) < full);
+        assertEquals(latest, warmed);
+        store.close();
+    }
+}